@@ -1,6 +1,7 @@
 package study.querydsl;
 
 import study.querydsl.entity.Member;
+import study.querydsl.repository.support.BulkUpdateResult;
 
 import java.util.List;
 
@@ -8,4 +9,6 @@ public interface MemberRepositoryCustom {
 
     List<Member> findMemberCustom();
 
+    BulkUpdateResult bulkAgePlusChunked(int age);
+
 }
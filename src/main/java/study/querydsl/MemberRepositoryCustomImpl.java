@@ -1,16 +1,25 @@
 package study.querydsl;
 
+import lombok.RequiredArgsConstructor;
 import study.querydsl.entity.Member;
+import study.querydsl.repository.cache.InvalidatesMemberCache;
+import study.querydsl.repository.support.BulkUpdateResult;
+import study.querydsl.repository.support.ChunkedUpdateExecutor;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.util.List;
 
+import static study.querydsl.entity.QMember.member;
+
+@RequiredArgsConstructor
 public class MemberRepositoryCustomImpl implements MemberRepositoryCustom {
 
     @PersistenceContext
     private EntityManager em;
 
+    private final ChunkedUpdateExecutor chunkedUpdateExecutor;
+
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery(
@@ -18,4 +27,17 @@ public class MemberRepositoryCustomImpl implements MemberRepositoryCustom {
                 .getResultList();
     }
 
+    /**
+     * bulkAgePlus를 member_id 범위별로 나눠서 실행 (ChunkedUpdateExecutor 참고)
+     * chunk마다 바로 커밋되기 때문에 호출한 쪽 트랜잭션이 롤백돼도 되돌려지지 않음
+     */
+    @Override
+    @InvalidatesMemberCache
+    public BulkUpdateResult bulkAgePlusChunked(int age) {
+        return chunkedUpdateExecutor.update(member, member.id)
+                .set(member.age, member.age.add(1))
+                .where(member.age.gt(age))
+                .execute();
+    }
+
 }
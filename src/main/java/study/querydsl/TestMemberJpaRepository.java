@@ -4,16 +4,22 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import study.querydsl.entity.Member;
+import study.querydsl.repository.cache.InvalidatesMemberCache;
+import study.querydsl.repository.support.BulkUpdateResult;
+import study.querydsl.repository.support.ChunkedUpdateExecutor;
 
 import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
 
+import static study.querydsl.entity.QMember.member;
+
 @Repository
 @RequiredArgsConstructor
 public class TestMemberJpaRepository {
 
     private final EntityManager em;
+    private final ChunkedUpdateExecutor chunkedUpdateExecutor;
 
     public Long save(Member member) {
         em.persist(member);
@@ -58,6 +64,7 @@ public class TestMemberJpaRepository {
                 .getSingleResult();
     }
 
+    @InvalidatesMemberCache
     public int bulkUpdateByAge(int age) {
         return em.createQuery(
                         "update Member m set m.age = m.age + 1" +
@@ -66,4 +73,15 @@ public class TestMemberJpaRepository {
                 .executeUpdate();
     }
 
+    /**
+     * bulkUpdateByAge를 member_id 범위별 짧은 트랜잭션으로 나눠서 실행
+     */
+    @InvalidatesMemberCache
+    public BulkUpdateResult bulkUpdateByAgeChunked(int age) {
+        return chunkedUpdateExecutor.update(member, member.id)
+                .set(member.age, member.age.add(1))
+                .where(member.age.gt(age))
+                .execute();
+    }
+
 }
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import study.querydsl.dto.MemberDto;
 import study.querydsl.entity.Member;
+import study.querydsl.repository.cache.InvalidatesMemberCache;
 
 import java.util.List;
 import java.util.Optional;
@@ -30,6 +31,7 @@ public interface TestMemberRepository extends JpaRepository<Member, Long>, Membe
 
     Page<Member> findByAge(int age, Pageable pageable);
 
+    @InvalidatesMemberCache
     @Modifying(clearAutomatically = true)
     @Query("update Member m set m.age = m.age + 1 where m.age > :age")
     int bulkAgePlus(@Param("age") int age);
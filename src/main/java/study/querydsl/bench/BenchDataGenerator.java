@@ -0,0 +1,283 @@
+package study.querydsl.bench;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import study.querydsl.repository.cache.TeamChangedEvent;
+import study.querydsl.repository.support.MemberJdbcWriter;
+import study.querydsl.repository.support.PooledLoIdAllocator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Profile("bench")
+@Component
+public class BenchDataGenerator implements ApplicationRunner {
+
+    /**
+     * 운영 규모(수백만~천만 건) 데이터로 검색/페이징 성능을 재현하기 위한 데이터 생성 (InitMember는 100건)
+     *   * 팀 배정은 zipf 분포 (team-skew가 클수록 앞쪽 팀에 몰림, 0이면 균등) => 큰 팀/작은 팀 조건 모두 확인 가능
+     *   * 나이는 정규분포(age-mean, age-stddev)를 0 ~ max-age로 자름
+     *   * workers개 스레드가 각자 커넥션 하나로 batch-size건씩 batch insert 후 커밋 (JPA를 거치지 않음)
+     *   * id는 엔티티와 같은 sequence에서 pooled-lo로 할당 => 생성 후 애플리케이션에서 persist해도 겹치지 않음
+     *   * seed가 같으면 같은 분포의 데이터 (스레드마다 seed + worker 번호)
+     * 이미 members건 이상 있으면 생성하지 않음 (파일 DB를 재사용해서 매번 다시 만들지 않도록)
+     */
+
+    private static final String AUDITOR = "bench";
+
+    private final DataSource dataSource;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MemberJdbcWriter jdbcWriter;
+
+    @Value("${member.generator.members:10000000}")
+    private long members;
+
+    @Value("${member.generator.teams:1000}")
+    private int teams;
+
+    @Value("${member.generator.workers:4}")
+    private int workers;
+
+    @Value("${member.generator.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${member.generator.team-skew:1.0}")
+    private double teamSkew;
+
+    @Value("${member.generator.age-mean:35}")
+    private double ageMean;
+
+    @Value("${member.generator.age-stddev:12}")
+    private double ageStddev;
+
+    @Value("${member.generator.max-age:100}")
+    private int maxAge;
+
+    @Value("${member.generator.seed:42}")
+    private long seed;
+
+    public BenchDataGenerator(DataSource dataSource, ApplicationEventPublisher eventPublisher,
+                              MemberJdbcWriter jdbcWriter) {
+        this.dataSource = dataSource;
+        this.eventPublisher = eventPublisher;
+        this.jdbcWriter = jdbcWriter;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+
+        long existing = countMembers();
+        if (existing >= members) {
+            log.info("bench data: {} members already exist, skip", existing);
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        long[] teamIds = insertTeams();
+        // JDBC로 만든 팀은 엔티티 이벤트가 없음 => 팀 이름 dictionary에 직접 알림
+        eventPublisher.publishEvent(new TeamChangedEvent());
+        double[] teamCdf = zipfCdf(teamIds.length, teamSkew);
+        long remaining = members - existing;
+
+        log.info("bench data: generating {} members, {} teams (skew {}), {} workers",
+                remaining, teamIds.length, teamSkew, workers);
+
+        AtomicLong inserted = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            long perWorker = remaining / workers;
+            for (int worker = 0; worker < workers; worker++) {
+                long from = existing + worker * perWorker;
+                long to = worker == workers - 1 ? members : from + perWorker;
+                int workerNo = worker;
+                futures.add(executor.submit(() -> {
+                    insertMembers(workerNo, from, to, teamIds, teamCdf, inserted, startedAt, remaining);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("bench data generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        log.info("bench data: {} members in {}ms ({} rows/s)", inserted.get(), elapsedMillis(startedAt),
+                rowsPerSecond(inserted.get(), startedAt));
+    }
+
+    /**
+     * 이름 member{from} ~ member{to - 1}인 회원을 커넥션 하나로 batchSize건씩 커밋
+     */
+    private void insertMembers(int workerNo, long from, long to, long[] teamIds, double[] teamCdf,
+                               AtomicLong inserted, long startedAt, long total) throws SQLException {
+
+        SplittableRandom random = new SplittableRandom(seed + workerNo);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long logInterval = Math.max(batchSize, total / 20);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(MemberJdbcWriter.MEMBER_INSERT);
+                 PreparedStatement sequence = connection.prepareStatement(jdbcWriter.getMemberSequenceQuery())) {
+
+                PooledLoIdAllocator ids = MemberJdbcWriter.idAllocator(() -> nextValue(sequence));
+                int pending = 0;
+                for (long i = from; i < to; i++) {
+                    insert.setLong(1, ids.next());
+                    insert.setString(2, "member" + i);
+                    insert.setInt(3, age(random));
+                    if (teamIds.length == 0) {
+                        insert.setNull(4, Types.BIGINT);
+                    } else {
+                        insert.setLong(4, teamIds[team(random, teamCdf)]);
+                    }
+                    insert.setString(5, AUDITOR);
+                    insert.setString(6, AUDITOR);
+                    insert.setTimestamp(7, now);
+                    insert.setTimestamp(8, now);
+                    insert.addBatch();
+
+                    if (++pending == batchSize || i == to - 1) {
+                        insert.executeBatch();
+                        connection.commit();
+                        long done = inserted.addAndGet(pending);
+                        if (done / logInterval != (done - pending) / logInterval) {
+                            log.info("bench data: {}/{} members, {} rows/s", done, total, rowsPerSecond(done, startedAt));
+                        }
+                        pending = 0;
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private long[] insertTeams() throws SQLException {
+
+        try (Connection connection = dataSource.getConnection()) {
+            List<Long> existing = new ArrayList<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("select id from team order by id")) {
+                while (rs.next()) {
+                    existing.add(rs.getLong(1));
+                }
+            }
+
+            long[] teamIds = new long[Math.max(teams, existing.size())];
+            for (int i = 0; i < existing.size(); i++) {
+                teamIds[i] = existing.get(i);
+            }
+            if (existing.size() >= teams) {
+                return teamIds;
+            }
+
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(MemberJdbcWriter.TEAM_INSERT);
+                 PreparedStatement sequence = connection.prepareStatement(jdbcWriter.getTeamSequenceQuery())) {
+                PooledLoIdAllocator ids = MemberJdbcWriter.idAllocator(() -> nextValue(sequence));
+                for (int i = existing.size(); i < teams; i++) {
+                    teamIds[i] = ids.next();
+                    insert.setLong(1, teamIds[i]);
+                    insert.setString(2, "team" + i);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+            return teamIds;
+        }
+    }
+
+    private long countMembers() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select count(*) from member")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private int age(SplittableRandom random) {
+        double age = ageMean + nextGaussian(random) * ageStddev;
+        return (int) Math.max(0, Math.min(maxAge, Math.round(age)));
+    }
+
+    /**
+     * k번째 팀의 가중치 1 / k^skew 누적 분포에서 이진 탐색
+     */
+    private static int team(SplittableRandom random, double[] cdf) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+
+    private static double[] zipfCdf(int size, double skew) {
+        double[] cdf = new double[size];
+        double sum = 0;
+        for (int k = 0; k < size; k++) {
+            sum += 1 / Math.pow(k + 1, skew);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < size; k++) {
+            cdf[k] /= sum;
+        }
+        return cdf;
+    }
+
+    // SplittableRandom에는 nextGaussian이 없음 (Box-Muller)
+    private static double nextGaussian(SplittableRandom random) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    private static long nextValue(PreparedStatement sequence) {
+        try (ResultSet rs = sequence.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException("sequence query failed", e);
+        }
+    }
+
+    private static long rowsPerSecond(long rows, long startedAt) {
+        long elapsed = elapsedMillis(startedAt);
+        return elapsed == 0 ? rows : rows * 1000 / elapsed;
+    }
+
+    private static long elapsedMillis(long startedAt) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    }
+
+}
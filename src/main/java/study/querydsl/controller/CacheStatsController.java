@@ -0,0 +1,40 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.repository.cache.MemberCountCache;
+import study.querydsl.repository.cache.MemberPagePrefetcher;
+import study.querydsl.repository.cache.MemberSearchCache;
+import study.querydsl.repository.cache.TeamNameDictionary;
+import study.querydsl.repository.cache.TeamSecondLevelCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    /**
+     * 캐시별 hit/miss 등 지표 (캐시가 효과가 있는지 판단하는 용도)
+     */
+
+    private final MemberCountCache memberCountCache;
+    private final MemberPagePrefetcher memberPagePrefetcher;
+    private final MemberSearchCache memberSearchCache;
+    private final TeamSecondLevelCache teamSecondLevelCache;
+    private final TeamNameDictionary teamNameDictionary;
+
+    @GetMapping("/stats/caches")
+    public Map<String, Object> cacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("memberCount", memberCountCache.stats());
+        stats.put("memberSearch", memberSearchCache.stats());
+        stats.put("memberPagePrefetch", memberPagePrefetcher.stats());
+        stats.put("secondLevel", teamSecondLevelCache.stats());
+        stats.put("teamNameDictionary", teamNameDictionary.stats());
+        return stats;
+    }
+
+}
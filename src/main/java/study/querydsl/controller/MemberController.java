@@ -1,37 +1,82 @@
 package study.querydsl.controller;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.dto.CursorPage;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.repository.MemberJpaRepository;
 import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.PageFetchMode;
+import study.querydsl.repository.cache.MemberPagePrefetcher;
+import study.querydsl.repository.cursor.MemberCursor;
+import study.querydsl.repository.cursor.MemberCursorCodec;
 
 import java.util.List;
 
+import static org.springframework.util.StringUtils.hasText;
+
+@Slf4j
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final String RESULT_TRUNCATED = "X-Result-Truncated";
+    // /v5 size 최대값 (Pageable을 쓰는 endpoint의 max-page-size 기본값과 같음)
+    private static final int MAX_KEYSET_SIZE = 2000;
+
     private final MemberJpaRepository jpaRepository;
     private final MemberRepository memberRepository;
+    private final MemberCursorCodec cursorCodec;
+    private final MemberPagePrefetcher pagePrefetcher;
+
+    // /v1/members 요청이 전체 회원(또는 큰 팀 전체)을 메모리에 올리지 않도록 최대 개수 제한
+    @Value("${member.search.unfiltered-limit:1000}")
+    private int unfilteredLimit;
 
+    /**
+     * 조건과 상관없이 unfilteredLimit개까지만 반환 (teamName 조건이어도 팀 하나가 테이블의 큰 비율일 수 있음)
+     * 잘린 경우 X-Result-Truncated: true 헤더로 알려줌 => 더 필요하면 조건을 추가하거나 페이징 API(/v2 ~ /v5, /members) 사용
+     * username, teamName 조건이 있는데도 잘렸으면 로그로 경고
+     */
     @GetMapping("/v1/members")
-    public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
-        return jpaRepository.search(condition);
+    public ResponseEntity<List<MemberTeamDto>> searchMemberV1(MemberSearchCondition condition) {
+        List<MemberTeamDto> result = jpaRepository.search(condition, unfilteredLimit + 1);
+        if (result.size() <= unfilteredLimit) {
+            return ResponseEntity.ok(result);
+        }
+
+        if (condition.isSelective()) {
+            log.warn("/v1/members result truncated to {} rows for a selective condition {}", unfilteredLimit, condition);
+        }
+        return ResponseEntity.ok()
+                .header(RESULT_TRUNCATED, "true")
+                .body(result.subList(0, unfilteredLimit));
     }
 
+    /**
+     * member.search.prefetch.enabled=true면 다음 페이지를 미리 조회해둠
+     */
     @GetMapping("/v2/members")
     public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageSimple(condition, pageable);
+        return pagePrefetcher.fetch(condition, pageable, memberRepository::searchPageSimple);
     }
 
+    /**
+     * fetchMode=IDS_FIRST 면 id만 먼저 조회한 다음 projection 조회 (두 방식 성능 비교용)
+     */
     @GetMapping("/v3/members")
-    public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageComplex(condition, pageable);
+    public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable,
+                                              @RequestParam(defaultValue = "SINGLE_QUERY") PageFetchMode fetchMode) {
+        return memberRepository.searchPageComplex(condition, pageable, fetchMode);
     }
 
     @GetMapping("/v4/members")
@@ -39,4 +84,40 @@ public class MemberController {
         return memberRepository.searchPageComplex_v2(condition, pageable);
     }
 
+    /**
+     * 전체 개수를 보여주지 않는 무한 스크롤용 (count query 없음)
+     */
+    @GetMapping("/v4/members/slice")
+    public Slice<MemberTeamDto> searchMemberV4Slice(MemberSearchCondition condition, Pageable pageable) {
+        return memberRepository.searchSlice(condition, pageable);
+    }
+
+    /**
+     * keyset 페이징
+     * 다음 페이지는 이전 응답의 마지막 memberId를 lastMemberId로 넘겨서 조회
+     * size는 1 ~ MAX_KEYSET_SIZE로 제한
+     */
+    @GetMapping("/v5/members")
+    public List<MemberTeamDto> searchMemberV5(MemberSearchCondition condition,
+                                              @RequestParam(required = false) Long lastMemberId,
+                                              @RequestParam(defaultValue = "20") int size) {
+        return memberRepository.searchAfter(condition, lastMemberId, Math.min(Math.max(size, 1), MAX_KEYSET_SIZE));
+    }
+
+    /**
+     * cursor 페이징
+     * 첫 요청은 sort(id, age 지원)와 size로, 다음부터는 응답의 nextCursor/previousCursor를 cursor로 넘김
+     * 정렬은 cursor에 들어있기 때문에 cursor가 있으면 sort 파라미터는 무시, 검색 조건은 처음과 같아야 함
+     */
+    @GetMapping("/members")
+    public CursorPage<MemberTeamDto> searchMembers(MemberSearchCondition condition,
+                                                   @RequestParam(required = false) String cursor,
+                                                   Pageable pageable) {
+        MemberCursor memberCursor = hasText(cursor)
+                ? cursorCodec.decode(cursor, condition)
+                : MemberCursor.first(pageable.getSort(), condition);
+        Slice<MemberTeamDto> slice = memberRepository.searchByCursor(condition, memberCursor, pageable.getPageSize());
+        return cursorCodec.toPage(memberCursor, slice);
+    }
+
 }
@@ -0,0 +1,96 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.export.ExportJob;
+import study.querydsl.export.MemberExportService;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberExportController {
+
+    // tomcat이 지원하면 파일을 응답 버퍼로 복사하지 않고 커널에서 바로 소켓으로 보냄 (sendfile)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final MediaType CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final MemberExportService exportService;
+
+    /**
+     * export 작업 시작 => 202 + 작업 상태, Location 헤더로 다운로드 주소
+     */
+    @PostMapping("/exports")
+    public ResponseEntity<ExportJob> startExport(MemberSearchCondition condition,
+                                                 @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportJob job = exportService.start(condition, gzip);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.getId()).toUri())
+                .body(job);
+    }
+
+    /**
+     * 완료된 작업이면 CSV 파일, 아직 실행중이면 202 + 작업 상태, 실패했으면 500 + 작업 상태
+     */
+    @GetMapping("/exports/{id}")
+    public ResponseEntity<?> export(@PathVariable String id, HttpServletRequest request) throws IOException {
+        ExportJob job = exportService.find(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "export not found: " + id));
+
+        switch (job.getStatus()) {
+            case RUNNING:
+                return ResponseEntity.accepted().body(job);
+            case FAILED:
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(job);
+            default:
+                return file(job, request);
+        }
+    }
+
+    /**
+     * sendfile을 지원하면 request attribute만 설정하고 body 없이 응답 => tomcat이 응답을 마무리할 때 파일을 보냄
+     * 지원하지 않으면 FileSystemResource body로 일반 스트리밍
+     */
+    private ResponseEntity<?> file(ExportJob job, HttpServletRequest request) throws IOException {
+        Path file = job.getFile();
+        long size = Files.size(file);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(job.isGzip() ? GZIP : CSV)
+                .contentLength(size)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(job.getFileName()).build().toString());
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return builder.build();
+        }
+
+        return builder.body(new FileSystemResource(file));
+    }
+
+}
@@ -0,0 +1,31 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.importer.ImportResult;
+import study.querydsl.importer.MemberImportService;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberImportController {
+
+    private final MemberImportService importService;
+
+    /**
+     * CSV(username,age,teamName) 업로드로 회원 대량 등록
+     * multipart나 @RequestBody String으로 받으면 업로드 전체를 메모리/임시파일에 올리기 때문에 요청 body를 그대로 읽음
+     *   ex) curl -X POST -H "Content-Type: text/csv" --data-binary @members.csv localhost:8080/imports/members
+     */
+    @PostMapping(value = "/imports/members", consumes = "text/csv")
+    public ImportResult importMembers(HttpServletRequest request) throws IOException {
+        try (InputStream in = request.getInputStream()) {
+            return importService.importCsv(in);
+        }
+    }
+
+}
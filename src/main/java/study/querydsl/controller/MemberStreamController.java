@@ -0,0 +1,191 @@
+package study.querydsl.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+@RestController
+public class MemberStreamController {
+
+    /**
+     * 검색 결과를 List로 모으지 않고 DB에서 읽는 대로 내려줌 (NDJSON, SSE)
+     * 결과 개수와 상관없이 메모리 사용량이 일정하고, 첫 row를 읽자마자 응답이 시작됨
+     */
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // 몇 row마다 응답을 flush 할지 (첫 row는 바로 flush)
+    private static final int FLUSH_INTERVAL = 100;
+
+    private static final int MAX_SSE_BATCH_SIZE = 1000;
+    private static final long SSE_TIMEOUT_MILLIS = 5 * 60 * 1000L;
+
+    private final MemberRepository memberRepository;
+    private final ObjectWriter jsonWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AsyncTaskExecutor taskExecutor;
+    // stream(NDJSON, SSE) 하나가 끝날 때까지 커넥션 하나를 잡고 있기 때문에 동시에 열 수 있는 개수 제한 (두 endpoint 합산)
+    private final Semaphore openStreams;
+
+    public MemberStreamController(MemberRepository memberRepository, ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager, AsyncTaskExecutor taskExecutor,
+                                  @Value("${member.search.stream.max-streams:4}") int maxStreams) {
+        this.memberRepository = memberRepository;
+        this.jsonWriter = objectMapper.writerFor(MemberTeamDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.openStreams = new Semaphore(maxStreams);
+    }
+
+    /**
+     * 클라이언트가 다 읽을 때까지 트랜잭션(커넥션)을 잡고 있음 => max-streams개가 열려 있으면 503
+     */
+    @GetMapping("/members/stream")
+    public ResponseEntity<StreamingResponseBody> streamMembers(MemberSearchCondition condition) {
+
+        acquireStream();
+
+        // 응답 스레드에서 실행됨 => stream(ResultSet)이 열려있는 동안 트랜잭션(커넥션)을 유지
+        StreamingResponseBody body = out -> {
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<MemberTeamDto> rows = memberRepository.streamSearch(condition)) {
+                        writeNdjson(rows.iterator(), out);
+                    }
+                });
+            } finally {
+                openStreams.release();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Server-Sent Events로 검색 결과를 batchSize개씩 나눠서 보냄 ("members" 이벤트, 마지막에 전체 개수를 담은 "end" 이벤트)
+     * 별도 스레드에서 scroll로 읽으면서 보내고, send는 클라이언트가 받을 때까지 블로킹됨
+     *   => 클라이언트 쪽 버퍼가 가득 차면 DB cursor도 더 읽지 않고 기다림 (backpressure), 비워지면 다시 읽음
+     * 클라이언트가 연결을 끊거나 timeout이 나면 읽기를 멈추고 cursor와 트랜잭션을 정리
+     */
+    @GetMapping(value = "/members/sse", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter sseMembers(MemberSearchCondition condition,
+                                 @RequestParam(defaultValue = "100") int batchSize) {
+
+        acquireStream();
+
+        int size = Math.min(Math.max(batchSize, 1), MAX_SSE_BATCH_SIZE);
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MILLIS);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        emitter.onTimeout(() -> cancelled.set(true));
+        emitter.onError(e -> cancelled.set(true));
+        emitter.onCompletion(() -> cancelled.set(true));
+
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    Long count;
+                    try {
+                        count = readOnlyTransaction.execute(status -> sendBatches(condition, size, emitter, cancelled));
+                    } finally {
+                        // 트랜잭션(커넥션)이 끝나면 바로 반납 => end 이벤트를 받고 곧바로 다시 열어도 503이 나지 않음
+                        openStreams.release();
+                    }
+                    if (!cancelled.get()) {
+                        emitter.send(SseEmitter.event().name("end").data(count));
+                        emitter.complete();
+                    }
+                } catch (Exception e) {
+                    emitter.completeWithError(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            openStreams.release();
+            throw e;
+        }
+
+        return emitter;
+    }
+
+    private void acquireStream() {
+        if (!openStreams.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "too many member streams, retry later");
+        }
+    }
+
+    private long sendBatches(MemberSearchCondition condition, int size, SseEmitter emitter, AtomicBoolean cancelled) {
+        try (Stream<MemberTeamDto> rows = memberRepository.streamSearch(condition)) {
+            long count = 0;
+            List<MemberTeamDto> batch = new ArrayList<>(size);
+            for (Iterator<MemberTeamDto> it = rows.iterator(); it.hasNext() && !cancelled.get(); ) {
+                batch.add(it.next());
+                if (batch.size() == size) {
+                    count += sendBatch(emitter, batch);
+                }
+            }
+            if (!batch.isEmpty() && !cancelled.get()) {
+                count += sendBatch(emitter, batch);
+            }
+            return count;
+        }
+    }
+
+    private int sendBatch(SseEmitter emitter, List<MemberTeamDto> batch) {
+        try {
+            // emitter가 아직 초기화 전이면 보낼 데이터를 보관해뒀다가 보내기 때문에 batch를 재사용하지 않도록 복사해서 넘김
+            emitter.send(SseEmitter.event().name("members").data(List.copyOf(batch), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int sent = batch.size();
+        batch.clear();
+        return sent;
+    }
+
+    private void writeNdjson(Iterator<MemberTeamDto> rows, OutputStream out) {
+        try {
+            int count = 0;
+            while (rows.hasNext()) {
+                jsonWriter.writeValue(out, rows.next());
+                out.write('\n');
+                if (++count % FLUSH_INTERVAL == 1) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            // 클라이언트가 연결을 끊은 경우 => 예외로 트랜잭션과 stream을 정리하고 더 읽지 않음
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * cursor 페이징 응답
+ * nextCursor/previousCursor가 null이면 그 방향으로는 더 이상 데이터가 없음
+ */
+@Getter
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final String previousCursor;
+
+    public CursorPage(List<T> content, String nextCursor, String previousCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
+
+}
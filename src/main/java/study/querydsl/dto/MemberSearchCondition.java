@@ -2,6 +2,8 @@ package study.querydsl.dto;
 
 import lombok.Data;
 
+import static org.springframework.util.StringUtils.hasText;
+
 @Data
 public class MemberSearchCondition {
 
@@ -9,9 +11,55 @@ public class MemberSearchCondition {
      * 회원 명, 팀명, 나이(ageGoe, ageLoe)
      */
 
+    /**
+     * 나이는 0 이상 => ageGoe가 0 이하면 항상 참이라서 조건이 필요 없고, ageLoe가 0 미만이면 항상 거짓
+     */
+    public static final int MIN_AGE = 0;
+
     private String username;
     private String teamName;
     private Integer ageGoe;
     private Integer ageLoe;
 
+    /**
+     * null과 "" 같은 빈 문자열은 조회 조건으로서 의미가 같기 때문에 null로 통일한 사본
+     * 항상 참인 나이 조건(ageGoe <= MIN_AGE)도 제거
+     * 같은 결과를 내는 조건은 같은 값이 되기 때문에 캐시 key로 사용
+     */
+    public MemberSearchCondition normalize() {
+        MemberSearchCondition normalized = new MemberSearchCondition();
+        normalized.setUsername(hasText(username) ? username : null);
+        normalized.setTeamName(hasText(teamName) ? teamName : null);
+        normalized.setAgeGoe(ageGoe != null && ageGoe > MIN_AGE ? ageGoe : null);
+        normalized.setAgeLoe(ageLoe);
+        return normalized;
+    }
+
+    /**
+     * 결과가 있을 수 없는 조건이면 false => DB에 조회하지 않고 빈 결과를 반환하면 됨
+     *   * ageLoe < MIN_AGE
+     *   * ageGoe > ageLoe
+     */
+    public boolean isSatisfiable() {
+        if (ageLoe != null && ageLoe < MIN_AGE) {
+            return false;
+        }
+        return ageGoe == null || ageLoe == null || ageGoe <= ageLoe;
+    }
+
+    /**
+     * username, teamName 조건이 있어야 결과 row 수가 제한됨
+     * 나이 범위만 있거나 조건이 없으면 테이블 대부분을 읽을 수 있음
+     */
+    public boolean isSelective() {
+        return hasText(username) || hasText(teamName);
+    }
+
+    /**
+     * ageGoe == ageLoe => age = ? 하나로 조회 (범위 조건보다 인덱스를 타기 좋음)
+     */
+    public boolean isAgeEq() {
+        return ageGoe != null && ageGoe.equals(ageLoe);
+    }
+
 }
@@ -1,6 +1,9 @@
 package study.querydsl.entity;
 
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import study.querydsl.repository.cache.MemberCacheEntityListener;
 
 import javax.persistence.*;
 
@@ -11,9 +14,20 @@ import static lombok.AccessLevel.*;
 @Getter @Setter
 @NoArgsConstructor(access = PROTECTED)
 @ToString(of = {"id", "username", "age"})
+@EntityListeners(MemberCacheEntityListener.class)
 public class Member extends BaseEntity {
 
-    @Id @GeneratedValue
+    /**
+     * pooled-lo: sequence를 한번 조회하면 50개의 id를 메모리에서 할당 (persist마다 sequence 조회 X)
+     * insert가 jdbc batch로 묶이려면 id를 미리 알아야 함 (IDENTITY 전략은 batch insert 불가)
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq")
+    @GenericGenerator(name = "member_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "member_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     @Column(name = "member_id")
     private Long id;
 
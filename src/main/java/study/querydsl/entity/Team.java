@@ -1,9 +1,17 @@
 package study.querydsl.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import study.querydsl.repository.cache.MemberCacheEntityListener;
+import study.querydsl.repository.cache.TeamSecondLevelCache;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import java.util.ArrayList;
@@ -13,9 +21,18 @@ import java.util.List;
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
+// 거의 변경되지 않는 데이터라 2차 캐시 사용 => member.getTeam() 프록시 초기화를 DB 대신 캐시에서 (region 설정은 application.conf)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TeamSecondLevelCache.ENTITY_REGION)
+@EntityListeners(MemberCacheEntityListener.class) // 팀 이름 변경도 검색 결과에 영향
 public class Team {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq")
+    @GenericGenerator(name = "team_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "team_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private Long id;
 
     private String name;
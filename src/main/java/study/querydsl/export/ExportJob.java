@@ -0,0 +1,58 @@
+package study.querydsl.export;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * 회원 CSV export 작업 상태
+ * 작업 스레드가 갱신하고 요청 스레드가 읽기 때문에 volatile
+ */
+@Getter
+public class ExportJob {
+
+    public enum Status {
+        RUNNING, DONE, FAILED
+    }
+
+    private final String id;
+    private final boolean gzip;
+    private final Instant requestedAt = Instant.now();
+
+    @JsonIgnore
+    private final Path file;
+
+    private volatile Status status = Status.RUNNING;
+    private volatile long rows;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    ExportJob(String id, Path file, boolean gzip) {
+        this.id = id;
+        this.file = file;
+        this.gzip = gzip;
+    }
+
+    public String getFileName() {
+        return gzip ? "members-" + id + ".csv.gz" : "members-" + id + ".csv";
+    }
+
+    void progress(long rows) {
+        this.rows = rows;
+    }
+
+    void done(long rows) {
+        this.rows = rows;
+        this.finishedAt = Instant.now();
+        this.status = Status.DONE;
+    }
+
+    void failed(Throwable cause) {
+        this.error = cause.getMessage();
+        this.finishedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+
+}
@@ -0,0 +1,18 @@
+package study.querydsl.export;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 동시에 실행할 수 있는 export 작업 수를 넘은 경우
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ExportRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ExportRejectedException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,216 @@
+package study.querydsl.export;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberRepository;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Service
+public class MemberExportService implements DisposableBean {
+
+    /**
+     * 검색 조건에 맞는 회원을 CSV 파일로 만드는 작업을 백그라운드에서 실행
+     *   * 요청 스레드는 작업 id만 받고 바로 반환 (파일은 완료 후 /exports/{id}로 다운로드)
+     *   * 결과는 scroll로 한 row씩 읽어서 바로 파일에 씀 => 회원 수와 상관없이 메모리 사용량 일정
+     *   * 동시에 실행하는 작업 수(pool-size)를 제한해서 DB 커넥션을 몇 개 이상 잡지 않음
+     *   * retention이 지난 작업과 파일은 다음 export 요청 때 정리
+     */
+
+    private static final String HEADER = "memberId,username,age,teamId,teamName\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor executor;
+    private final Path directory;
+    private final Duration retention;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    public MemberExportService(MemberRepository memberRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${member.export.dir:${java.io.tmpdir}/member-exports}") String directory,
+                               @Value("${member.export.pool-size:2}") int poolSize,
+                               @Value("${member.export.queue-capacity:8}") int queueCapacity,
+                               @Value("${member.export.retention:1h}") Duration retention) {
+        this.memberRepository = memberRepository;
+        this.directory = Paths.get(directory);
+        this.retention = retention;
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "member-export-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public ExportJob start(MemberSearchCondition condition, boolean gzip) {
+
+        removeExpired();
+
+        String id = UUID.randomUUID().toString();
+        ExportJob job = new ExportJob(id, directory.resolve(id + (gzip ? ".csv.gz" : ".csv")), gzip);
+        jobs.put(id, job);
+
+        try {
+            executor.execute(() -> run(job, condition));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            throw new ExportRejectedException("too many exports in progress, retry later");
+        }
+        return job;
+    }
+
+    public Optional<ExportJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void run(ExportJob job, MemberSearchCondition condition) {
+        long startedAt = System.nanoTime();
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            // 다 쓴 다음 이름을 바꿔서 완료되지 않은 파일을 내려주지 않도록
+            Path tempFile = Files.createTempFile(directory, job.getId(), ".tmp");
+            temp = tempFile;
+            long rows = readOnlyTransaction.execute(status -> write(job, condition, tempFile));
+            Files.move(tempFile, job.getFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.done(rows);
+            log.info("member export {} done: {} rows in {}ms", job.getId(), rows,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (Exception e) {
+            log.warn("member export {} failed", job.getId(), e);
+            job.failed(e);
+            deleteQuietly(temp);
+        }
+    }
+
+    private long write(ExportJob job, MemberSearchCondition condition, Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer writer = csvWriter(channel, job.isGzip());
+             Stream<MemberTeamDto> rows = memberRepository.streamSearch(condition)) {
+
+            writer.write(HEADER);
+            long count = 0;
+            for (Iterator<MemberTeamDto> it = rows.iterator(); it.hasNext(); ) {
+                writeRow(writer, it.next());
+                if (++count % PROGRESS_INTERVAL == 0) {
+                    job.progress(count);
+                }
+            }
+            writer.flush();
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * FileChannel <- (64KB 버퍼) <- (gzip) <- UTF-8 문자
+     */
+    private Writer csvWriter(FileChannel channel, boolean gzip) throws IOException {
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        if (gzip) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private void writeRow(Writer writer, MemberTeamDto row) throws IOException {
+        writer.write(String.valueOf(row.getMemberId()));
+        writer.write(',');
+        writer.write(escape(row.getUsername()));
+        writer.write(',');
+        writer.write(Integer.toString(row.getAge()));
+        writer.write(',');
+        writer.write(row.getTeamId() != null ? row.getTeamId().toString() : "");
+        writer.write(',');
+        writer.write(escape(row.getTeamName()));
+        writer.write('\n');
+    }
+
+    /**
+     * , " 줄바꿈이 들어있으면 "로 감싸고 "는 ""로 (RFC 4180)
+     */
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void removeExpired() {
+        Instant expiredBefore = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (job.getFinishedAt() == null || job.getFinishedAt().isAfter(expiredBefore)) {
+                return false;
+            }
+            deleteQuietly(job.getFile());
+            return true;
+        });
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("failed to delete export file {}", file, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+}
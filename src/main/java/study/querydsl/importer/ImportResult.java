@@ -0,0 +1,30 @@
+package study.querydsl.importer;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class ImportResult {
+
+    long lines;
+    long imported;
+    long failed;
+    int teamsCreated;
+    long elapsedMillis;
+    List<LineError> errors;
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? imported : imported * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * 등록하지 못한 줄 (line은 1부터, 헤더 포함)
+     */
+    @Value
+    public static class LineError {
+        long line;
+        String message;
+    }
+
+}
@@ -0,0 +1,261 @@
+package study.querydsl.importer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.repository.cache.InvalidatesMemberCache;
+import study.querydsl.repository.cache.TeamChangedEvent;
+import study.querydsl.repository.support.MemberJdbcWriter;
+import study.querydsl.repository.support.PooledLoIdAllocator;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.dto.MemberSearchCondition.MIN_AGE;
+
+@Slf4j
+@Service
+public class MemberImportService {
+
+    /**
+     * CSV(username,age,teamName)로 회원 대량 등록
+     *   * 업로드를 한 줄씩 읽으면서 처리 => 파일 크기와 상관없이 메모리 사용량 일정
+     *   * em.persist를 거치지 않고 JDBC batch insert (영속성 컨텍스트, dirty checking, auditing listener X)
+     *   * id는 엔티티와 같은 sequence에서 pooled-lo 방식으로 직접 할당 (SQL, 할당 크기는 MemberJdbcWriter)
+     *   * 팀 이름 -> 팀 id는 시작할 때 한번 읽어둔 map으로 찾고, 없는 팀은 새로 등록
+     *   * BATCH_SIZE줄마다 커밋 => 중간에 실패해도 앞에서 커밋된 회원은 남음
+     *   * 형식이 잘못된 줄은 건너뛰고 줄 번호와 이유를 결과에 담음 (MAX_REPORTED_ERRORS개까지)
+     */
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final AuditorAware<String> auditorAware;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MemberJdbcWriter jdbcWriter;
+
+    public MemberImportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                               AuditorAware<String> auditorAware, ApplicationEventPublisher eventPublisher,
+                               MemberJdbcWriter jdbcWriter) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.auditorAware = auditorAware;
+        this.eventPublisher = eventPublisher;
+        this.jdbcWriter = jdbcWriter;
+    }
+
+    @InvalidatesMemberCache
+    public ImportResult importCsv(InputStream in) throws IOException {
+
+        long startedAt = System.nanoTime();
+        Import context = new Import(auditorAware.getCurrentAuditor().orElse("import"), LocalDateTime.now());
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        List<Row> batch = new ArrayList<>(BATCH_SIZE);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            long lineNumber = ++context.lines;
+            if (!hasText(line) || (lineNumber == 1 && line.startsWith("username"))) {
+                continue;
+            }
+            try {
+                batch.add(Row.parse(lineNumber, line));
+            } catch (IllegalArgumentException e) {
+                context.failed++;
+                context.error(lineNumber, e.getMessage());
+                continue;
+            }
+            if (batch.size() == BATCH_SIZE) {
+                insert(batch, context);
+                batch.clear();
+                log.debug("member import: {} rows, {} rows/s", context.imported, rowsPerSecond(context.imported, startedAt));
+            }
+        }
+        insert(batch, context);
+
+        // JDBC로 만든 팀은 엔티티 이벤트가 없음 => 팀 이름 dictionary에 직접 알림
+        if (context.teamsCreated > 0) {
+            eventPublisher.publishEvent(new TeamChangedEvent());
+        }
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        log.info("member import: {} lines, {} imported, {} failed, {} teams created in {}ms",
+                context.lines, context.imported, context.failed, context.teamsCreated, elapsed);
+        return new ImportResult(context.lines, context.imported, context.failed, context.teamsCreated,
+                elapsed, context.errors);
+    }
+
+    private void insert(List<Row> rows, Import context) {
+
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<String> createdTeams = new ArrayList<>();
+        try {
+            transaction.executeWithoutResult(status -> {
+                List<Object[]> args = new ArrayList<>(rows.size());
+                for (Row row : rows) {
+                    Long teamId = row.teamName != null ? teamId(row.teamName, context, createdTeams) : null;
+                    args.add(new Object[]{context.memberIds.next(), row.username, row.age, teamId,
+                            context.auditor, context.auditor, context.now, context.now});
+                }
+                jdbcTemplate.batchUpdate(MemberJdbcWriter.MEMBER_INSERT, args);
+            });
+            context.imported += rows.size();
+            context.teamsCreated += createdTeams.size();
+        } catch (RuntimeException e) {
+            // 롤백된 팀은 map에서도 지움
+            createdTeams.forEach(context.teams::remove);
+            context.failed += rows.size();
+            context.error(rows.get(0).line, "lines " + rows.get(0).line + "-" + rows.get(rows.size() - 1).line
+                    + " not imported: " + e.getMessage());
+            log.warn("member import batch failed at line {}", rows.get(0).line, e);
+        }
+    }
+
+    private Long teamId(String teamName, Import context, List<String> createdTeams) {
+        return context.teams.computeIfAbsent(teamName, name -> {
+            long id = context.teamIds.next();
+            jdbcTemplate.update(MemberJdbcWriter.TEAM_INSERT, id, name);
+            createdTeams.add(name);
+            return id;
+        });
+    }
+
+    private PooledLoIdAllocator idAllocator(String sequenceQuery) {
+        return MemberJdbcWriter.idAllocator(() -> jdbcTemplate.queryForObject(sequenceQuery, Long.class));
+    }
+
+    private static long rowsPerSecond(long rows, long startedAt) {
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        return elapsed == 0 ? rows : rows * 1000 / elapsed;
+    }
+
+    /**
+     * import 한번 동안의 상태 (요청 스레드 하나에서만 사용)
+     */
+    private class Import {
+
+        private final String auditor;
+        private final LocalDateTime now;
+        private final Map<String, Long> teams = loadTeams();
+        private final PooledLoIdAllocator memberIds = idAllocator(jdbcWriter.getMemberSequenceQuery());
+        private final PooledLoIdAllocator teamIds = idAllocator(jdbcWriter.getTeamSequenceQuery());
+        private final List<ImportResult.LineError> errors = new ArrayList<>();
+
+        private long lines;
+        private long imported;
+        private long failed;
+        private int teamsCreated;
+
+        Import(String auditor, LocalDateTime now) {
+            this.auditor = auditor;
+            this.now = now;
+        }
+
+        void error(long line, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportResult.LineError(line, message));
+            }
+        }
+
+        private Map<String, Long> loadTeams() {
+            Map<String, Long> teams = new HashMap<>();
+            jdbcTemplate.query("select id, name from team",
+                    rs -> {
+                        teams.putIfAbsent(rs.getString("name"), rs.getLong("id"));
+                    });
+            return teams;
+        }
+    }
+
+    private static class Row {
+
+        private final long line;
+        private final String username;
+        private final int age;
+        private final String teamName;
+
+        private Row(long line, String username, int age, String teamName) {
+            this.line = line;
+            this.username = username;
+            this.age = age;
+            this.teamName = teamName;
+        }
+
+        static Row parse(long line, String text) {
+            List<String> fields = split(text);
+            if (fields.size() < 2 || fields.size() > 3) {
+                throw new IllegalArgumentException("expected username,age[,teamName] but got " + fields.size() + " fields");
+            }
+            String username = fields.get(0).trim();
+            if (username.isEmpty()) {
+                throw new IllegalArgumentException("username is empty");
+            }
+            int age;
+            try {
+                age = Integer.parseInt(fields.get(1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("age is not a number: " + fields.get(1));
+            }
+            if (age < MIN_AGE) {
+                throw new IllegalArgumentException("age must be >= " + MIN_AGE + ": " + age);
+            }
+            String teamName = fields.size() == 3 && hasText(fields.get(2)) ? fields.get(2).trim() : null;
+            return new Row(line, username, age, teamName);
+        }
+
+        /**
+         * "로 감싼 필드와 ""(escape)까지 처리 (MemberExportService.escape의 반대), 필드 안의 줄바꿈은 지원하지 않음
+         */
+        private static List<String> split(String text) {
+            List<String> fields = new ArrayList<>(3);
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("unterminated quoted field");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+}
@@ -4,6 +4,7 @@ import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 import study.querydsl.dto.MemberSearchCondition;
@@ -12,8 +13,12 @@ import study.querydsl.dto.QMemberDto;
 import study.querydsl.dto.QMemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.QTeam;
+import study.querydsl.repository.cache.InvalidatesMemberCache;
+import study.querydsl.repository.support.MemberBatchLoader;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,11 +31,16 @@ public class MemberJpaRepository {
 
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final MemberBatchLoader batchLoader;
+    private final int saveChunkSize;
 
     // jpaRepository 생성될 떄 JPAQueryFactory 생성
-    public MemberJpaRepository(EntityManager em) {
+    public MemberJpaRepository(EntityManager em, MemberBatchLoader batchLoader,
+                               @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int saveChunkSize) {
         this.em = em;
         queryFactory = new JPAQueryFactory(em);
+        this.batchLoader = batchLoader;
+        this.saveChunkSize = saveChunkSize;
     }
 
     // JPAQueryFactory를 Spring Bean으로 등록해서 사용
@@ -41,15 +51,44 @@ public class MemberJpaRepository {
 //        this.queryFactory = queryFactory;
 //    }
 
+    @InvalidatesMemberCache
     public void save(Member member) {
         em.persist(member);
     }
 
+    /**
+     * 대량 저장
+     * hibernate.jdbc.batch_size개마다 flush로 batch insert를 보내고 clear로 영속성 컨텍스트를 비움
+     *   => 저장한 엔티티가 1차 캐시에 계속 쌓이지 않음 (clear하기 때문에 호출한 쪽의 다른 엔티티도 준영속 상태가 됨)
+     * 트랜잭션 안에서 호출
+     */
+    @InvalidatesMemberCache
+    public void saveAll(Iterable<Member> members) {
+        int count = 0;
+        for (Member member : members) {
+            em.persist(member);
+            if (++count % saveChunkSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
     public Optional<Member> findById(Long id) {
         Member findMember = em.find(Member.class, id);
         return Optional.ofNullable(findMember); // null값
     }
 
+    /**
+     * 여러 회원을 id로 한번에 조회 (영속성 컨텍스트에 없는 id만 in 조회, MemberBatchLoader 참고)
+     * 트랜잭션 안에서 호출
+     */
+    public List<Member> findAllById(Collection<Long> ids) {
+        return batchLoader.findAll(ids);
+    }
+
     public List<Member> findAll() {
         return em.createQuery(
                 "select m from Member m", Member.class)
@@ -120,6 +159,40 @@ public class MemberJpaRepository {
 
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
 
+        if (!condition.isSatisfiable()) {
+            return new ArrayList<>();
+        }
+
+        return queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.username,
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")
+                ))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe())
+                )
+                .fetch();
+    }
+
+    /**
+     * 조건이 없으면 전체 테이블을 읽기 때문에 최대 limit개까지만 조회 (member.id 순서)
+     * 잘렸는지 알고 싶으면 limit + 1개를 조회해서 결과 개수를 보면 됨
+     * 결과가 있을 수 없는 조건(ageGoe > ageLoe 등)은 DB에 가지 않고 바로 빈 결과 반환
+     */
+    public List<MemberTeamDto> search(MemberSearchCondition condition, int limit) {
+
+        if (!condition.isSatisfiable()) {
+            return new ArrayList<>();
+        }
+
         return queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
@@ -136,6 +209,8 @@ public class MemberJpaRepository {
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe())
                 )
+                .orderBy(member.id.asc())
+                .limit(limit)
                 .fetch();
     }
 
@@ -2,10 +2,14 @@ package study.querydsl.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.cursor.MemberCursor;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MemberRepositoryCustom {
 
@@ -15,6 +19,18 @@ public interface MemberRepositoryCustom {
 
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
 
+    Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable, PageFetchMode fetchMode);
+
     Page<MemberTeamDto> searchPageComplex_v2(MemberSearchCondition condition, Pageable pageable);
 
+    Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable);
+
+    List<MemberTeamDto> searchAfter(MemberSearchCondition condition, Long lastMemberId, int size);
+
+    Slice<MemberTeamDto> searchByCursor(MemberSearchCondition condition, MemberCursor cursor, int size);
+
+    Stream<MemberTeamDto> streamSearch(MemberSearchCondition condition);
+
+    Stream<Member> streamMembers(MemberSearchCondition condition);
+
 }
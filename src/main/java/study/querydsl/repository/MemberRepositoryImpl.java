@@ -1,19 +1,43 @@
 package study.querydsl.repository;
 
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.Wildcard;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.support.PageableExecutionUtils;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.cache.MemberCountCache;
+import study.querydsl.repository.cache.MemberSearchCache;
+import study.querydsl.repository.cache.TeamNameDictionary;
+import study.querydsl.repository.cursor.MemberCursor;
+import study.querydsl.repository.support.ReadOnlyQueryExecutor;
+import study.querydsl.repository.support.ScrollStreams;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
@@ -24,82 +48,165 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
     /**
      * offset : 몇번째부터 시작할꺼야
      * limit : 몇개씩 뿌려줄꺼야
+     * 결과가 있을 수 없는 조건(ageGoe > ageLoe 등)은 DB에 가지 않고 바로 빈 결과 반환 (MemberSearchCondition.isSatisfiable)
      */
 
+    // stream 조회시 DB에서 한번에 가져오는 row 수
+    private static final int STREAM_FETCH_SIZE = 500;
+    // 엔티티 stream에서 몇 개마다 영속성 컨텍스트에서 detach 할지
+    private static final int STREAM_EVICT_INTERVAL = 1000;
+
+    private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final MemberSearchTemplates templates;
+    private final ReadOnlyQueryExecutor queryExecutor;
+    private final MemberCountCache countCache;
+    private final MemberSearchCache searchCache;
+    private final boolean concurrentCount;
 
-    public MemberRepositoryImpl(EntityManager em) {
+    public MemberRepositoryImpl(EntityManager em, ReadOnlyQueryExecutor queryExecutor, MemberCountCache countCache,
+                                MemberSearchCache searchCache, TeamNameDictionary teamNameDictionary,
+                                @Value("${member.search.async.enabled:false}") boolean concurrentCount) {
+        this.em = em;
         this.queryFactory = new JPAQueryFactory(em);
+        this.templates = new MemberSearchTemplates(em, teamNameDictionary);
+        this.queryExecutor = queryExecutor;
+        this.countCache = countCache;
+        this.searchCache = searchCache;
+        this.concurrentCount = concurrentCount;
     }
 
     @Override
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
 
-        return queryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age,
-                        team.id.as("teamId"),
-                        team.name.as("teamName")
-                ))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .fetch();
+        if (!condition.isSatisfiable()) {
+            return new ArrayList<>();
+        }
+
+        return searchCache.get(condition, () -> templates.search(condition));
     }
 
     @Override
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
-        List<MemberTeamDto> content = queryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age,
-                        team.id.as("teamId"),
-                        team.name.as("teamName")
-                ))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetch();
 
-        Long totalCount = queryFactory
-                .select(member.count())
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .fetchOne();
+        if (!condition.isSatisfiable()) {
+            return Page.empty(pageable);
+        }
+
+        List<MemberTeamDto> content = templates.search(condition, pageable.getOffset(), pageable.getPageSize());
+
+        Long totalCount = countCache.get(condition, () -> templates.count(condition));
 
         return new PageImpl<>(content, pageable, totalCount);
     }
 
-    // content를 꺼내는 query랑 totalCount를 꺼내는 query랑 메서드화 시켜서 분리해도 됨(선택 사항)
     @Override
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+        return searchPageComplex(condition, pageable, PageFetchMode.SINGLE_QUERY);
+    }
+
+    // content를 꺼내는 query랑 totalCount를 꺼내는 query랑 메서드화 시켜서 분리해도 됨(선택 사항)
+    @Override
+    public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable, PageFetchMode fetchMode) {
+
+        if (!condition.isSatisfiable()) {
+            return Page.empty(pageable);
+        }
+
+        /**
+         * totalCount query
+         * member.search.async.enabled=true면 count query를 별도 커넥션에서 content query와 동시에 실행
+         * (페이지 응답 시간이 두 쿼리 시간의 합 => 둘 중 긴 쪽)
+         * 비동기로 받아주지 못하는 상황(큐가 가득 참)이면 기존처럼 content query 다음에 동기로 실행
+         * timeout-ms 안에 끝나지 않으면 QueryTimeoutException (동기로 다시 실행하지 않음)
+         * count가 캐시에 있으면 별도 커넥션을 쓸 필요가 없음
+         */
+
+        Supplier<Long> totalCountQuery = () -> countCache.get(condition, () -> templates.count(condition));
+
+        Optional<Future<Long>> asyncCount = !concurrentCount || countCache.contains(condition)
+                ? Optional.empty()
+                : queryExecutor.submit(totalCountQuery);
 
         /**
          * content query
          */
 
-        List<MemberTeamDto> content = queryFactory
+        List<MemberTeamDto> content = fetchMode == PageFetchMode.IDS_FIRST
+                ? fetchContentByIds(condition, pageable)
+                : templates.search(condition, pageable.getOffset(), pageable.getPageSize());
+
+        Long totalCount = asyncCount
+                .map(future -> queryExecutor.join(future))
+                .orElseGet(totalCountQuery);
+
+        return new PageImpl<>(content, pageable, totalCount);
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchPageComplex_v2(MemberSearchCondition condition, Pageable pageable) {
+
+        if (!condition.isSatisfiable()) {
+            return Page.empty(pageable);
+        }
+
+        /**
+         * searchPageComplex => countQuery 최적화
+         */
+
+        List<MemberTeamDto> content = templates.search(condition, pageable.getOffset(), pageable.getPageSize());
+
+        /**
+         * totalCount query에서는 .fetchOne()을 해야 실제 카운터 쿼리를 날림
+         * => 조건 모양별로 만들어둔 count JPQL을 재사용 (MemberSearchTemplates)
+         */
+
+//        return new PageImpl<>(content, pageable, totalCount);
+        /**
+         * count query 최적화 조건 (PageableExecutionUtils)
+         * 1. content의 사이즈가 page의 사이즈보다 작을 경우
+         * 2. 마지막 페이지일 경우
+         * content랑 pageable의 size를 보고 카운트 쿼리를 호출하거나 호출을 안함
+         */
+//        return PageableExecutionUtils.getPage(content, pageable, () -> totalCount.fetchOne());
+        return PageableExecutionUtils.getPage(content, pageable, () -> templates.count(condition));
+    }
+
+    /**
+     * count query 없는 Slice (전체 개수가 필요없는 무한 스크롤용)
+     * size + 1개를 조회해서 하나가 더 있으면 다음 페이지가 있는것
+     */
+    @Override
+    public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+
+        if (!condition.isSatisfiable()) {
+            return new SliceImpl<>(new ArrayList<>(), pageable, false);
+        }
+
+        List<MemberTeamDto> content = templates.search(condition, pageable.getOffset(), pageable.getPageSize() + 1);
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * keyset(seek) 페이징
+     * offset 방식은 앞의 row들을 전부 읽고 버리기 때문에 뒤 페이지로 갈수록 느려짐
+     * 마지막으로 받은 member.id 다음부터 PK 인덱스 순서대로 size만큼만 읽기 때문에 몇번째 페이지든 비용이 같음
+     * lastMemberId가 null이면 첫 페이지
+     */
+    @Override
+    public List<MemberTeamDto> searchAfter(MemberSearchCondition condition, Long lastMemberId, int size) {
+
+        if (!condition.isSatisfiable()) {
+            return new ArrayList<>();
+        }
+
+        return queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
                         member.username,
@@ -109,43 +216,74 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                 ))
                 .from(member)
                 .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
+                .where(memberIdGt(lastMemberId))
+                .where(searchConditions(condition))
+                .orderBy(member.id.asc())
+                .limit(size)
+                .fetch();
+    }
+
+    /**
+     * PageFetchMode.IDS_FIRST
+     * 1. 조건 + 정렬 + offset/limit으로 member.id만 조회 (team은 teamName 조건이 있을 때만 조인)
+     * 2. 해당 id들만 projection으로 조회
+     * in 절은 결과 순서를 보장하지 않기 때문에 1번에서 조회한 id 순서대로 다시 맞춰줌
+     */
+    private List<MemberTeamDto> fetchContentByIds(MemberSearchCondition condition, Pageable pageable) {
+
+        JPAQuery<Long> idQuery = queryFactory
+                .select(member.id)
+                .from(member);
+
+        if (hasText(condition.getTeamName())) {
+            idQuery.leftJoin(member.team, team);
+        }
+
+        List<Long> ids = idQuery
+                .where(searchConditions(condition))
+                .orderBy(member.id.asc())
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
                 .fetch();
 
-        /**
-         * totalCount query
-         */
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        Long totalCount = queryFactory
-                .select(member.count())
+        Map<Long, MemberTeamDto> rows = queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.username,
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")
+                ))
                 .from(member)
                 .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .fetchOne();
+                .where(member.id.in(ids))
+                .fetch()
+                .stream()
+                .collect(Collectors.toMap(MemberTeamDto::getMemberId, Function.identity()));
 
-        return new PageImpl<>(content, pageable, totalCount);
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
+    /**
+     * 다중 컬럼 정렬 keyset 페이징 (MemberCursor 참고)
+     * 이전 페이지 방향이면 정렬을 뒤집어서 조회했기 때문에 다시 뒤집어서 원래 순서로 반환
+     * Slice.hasNext() => cursor 방향으로 데이터가 더 있는지
+     */
     @Override
-    public Page<MemberTeamDto> searchPageComplex_v2(MemberSearchCondition condition, Pageable pageable) {
+    public Slice<MemberTeamDto> searchByCursor(MemberSearchCondition condition, MemberCursor cursor, int size) {
 
-        /**
-         * searchPageComplex => countQuery 최적화
-         */
+        if (!condition.isSatisfiable()) {
+            return new SliceImpl<>(new ArrayList<>(), PageRequest.of(0, size), false);
+        }
 
-        List<MemberTeamDto> content = queryFactory
+        List<MemberTeamDto> rows = queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
                         member.username,
@@ -155,41 +293,72 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                 ))
                 .from(member)
                 .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
+                .where(cursor.predicate())
+                .where(searchConditions(condition))
+                .orderBy(cursor.orderSpecifiers())
+                .limit(size + 1)
                 .fetch();
 
-        JPAQuery<Long> totalCount = queryFactory
-                .select(member.count())
-                .from(member)
+        boolean hasMore = rows.size() > size;
+        List<MemberTeamDto> content = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        if (cursor.isBackward()) {
+            Collections.reverse(content);
+        }
+
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasMore);
+    }
+
+    /**
+     * 결과를 List로 모으지 않고 JDBC ResultSet에서 한 row씩 읽어서 넘겨줌 (메모리 사용량이 결과 개수와 상관 없음)
+     * hibernate ScrollableResults(FORWARD_ONLY) + 조건 모양별 JPQL 재사용
+     * ResultSet이 열려있는 동안 커넥션을 잡고 있기 때문에 트랜잭션 안에서 사용하고 다 쓰면 close (try-with-resources)
+     */
+    @Override
+    public Stream<MemberTeamDto> streamSearch(MemberSearchCondition condition) {
+
+        if (!condition.isSatisfiable()) {
+            return Stream.empty();
+        }
+
+        return ScrollStreams.of(templates.scroll(condition, STREAM_FETCH_SIZE), templates::toDto);
+    }
+
+    /**
+     * 엔티티 stream (배치 작업에서 전체 회원을 순회할 때)
+     * 읽은 엔티티가 영속성 컨텍스트(1차 캐시)에 계속 쌓이지 않도록 STREAM_EVICT_INTERVAL개마다 이전에 넘겨준 엔티티들을 detach
+     *   => 넘겨받은 엔티티를 수정해도 반영되지 않음 (읽기 전용), 수정은 bulk update 사용
+     */
+    @Override
+    public Stream<Member> streamMembers(MemberSearchCondition condition) {
+
+        if (!condition.isSatisfiable()) {
+            return Stream.empty();
+        }
+
+        ScrollableResults results = queryFactory
+                .selectFrom(member)
                 .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                );
+                .where(searchConditions(condition))
+                .createQuery()
+                .unwrap(org.hibernate.query.Query.class)
+                .setFetchSize(STREAM_FETCH_SIZE)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY);
 
-        /**
-         * totalCount query에서는 .fetchOne()을 해야 실제 카운터 쿼리를 날림
-         */
-//        totalCount.fetchOne();
+        List<Member> loaded = new ArrayList<>(STREAM_EVICT_INTERVAL);
+        return ScrollStreams.of(results, row -> {
+            if (loaded.size() == STREAM_EVICT_INTERVAL) {
+                loaded.forEach(em::detach);
+                loaded.clear();
+            }
+            Member findMember = (Member) row[0];
+            loaded.add(findMember);
+            return findMember;
+        });
+    }
 
-//        return new PageImpl<>(content, pageable, totalCount);
-        /**
-         * count query 최적화 조건 (PageableExecutionUtils)
-         * 1. content의 사이즈가 page의 사이즈보다 작을 경우
-         * 2. 마지막 페이지일 경우
-         * content랑 pageable의 size를 보고 카운트 쿼리를 호출하거나 호출을 안함
-         */
-//        return PageableExecutionUtils.getPage(content, pageable, () -> totalCount.fetchOne());
-        return PageableExecutionUtils.getPage(content, pageable, totalCount::fetchOne); // 최적화 fetchOne 레퍼런스
+    private BooleanExpression memberIdGt(Long lastMemberId) {
+        return lastMemberId != null ? member.id.gt(lastMemberId) : null;
     }
 
     private BooleanExpression usernameEq(String username) {
@@ -200,6 +369,27 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
         return hasText(teamName) ? team.name.eq(teamName) : null;
     }
 
+    /**
+     * normalize()한 조건으로 where절 조립 (MemberSearchTemplates와 같은 모양)
+     * 의미 없는 조건은 빠지고 ageGoe == ageLoe면 age = ?
+     */
+    private Predicate[] searchConditions(MemberSearchCondition condition) {
+        MemberSearchCondition normalized = condition.normalize();
+        if (normalized.isAgeEq()) {
+            return new Predicate[]{
+                    usernameEq(normalized.getUsername()),
+                    teamNameEq(normalized.getTeamName()),
+                    member.age.eq(normalized.getAgeGoe())
+            };
+        }
+        return new Predicate[]{
+                usernameEq(normalized.getUsername()),
+                teamNameEq(normalized.getTeamName()),
+                ageGoe(normalized.getAgeGoe()),
+                ageLoe(normalized.getAgeLoe())
+        };
+    }
+
     private BooleanExpression ageGoe(Integer ageGoe) {
         return ageGoe != null ? member.age.goe(ageGoe) : null;
     }
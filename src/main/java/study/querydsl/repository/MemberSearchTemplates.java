@@ -0,0 +1,312 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.JPAQueryBase;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAProvider;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.repository.cache.TeamNameDictionary;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+class MemberSearchTemplates {
+
+    /**
+     * 검색 조건의 모양(어떤 조건이 들어왔는지 + 나이가 eq 조건인지)별로 JPQL을 한번만 만들어두고 재사용
+     * 호출할 때는 Querydsl 식(QMemberTeamDto, BooleanExpression)을 새로 만들거나 JPQL로 직렬화하지 않고 파라미터만 바인딩
+     * JPQL 문자열이 매번 같기 때문에 hibernate도 HQL 파싱 결과(query plan cache)를 재사용함
+     * 모양은 normalize()한 조건으로 정함 => 의미 없는 조건은 빠지고 ageGoe == ageLoe면 age = ?
+     *
+     * teamName은 TeamNameDictionary로 팀 id를 찾아서 member.team.id = ? (FK 컬럼) 조건으로 바꿈
+     *   * count query는 team을 조인하지 않음 (content query는 팀 컬럼을 조회하기 때문에 조인 유지)
+     *   * 없는 팀이면 조회하지 않고 빈 결과
+     *   * dictionary를 사용할 수 없거나 같은 이름의 팀이 여러개면 기존처럼 team.name = ?
+     *
+     * content query는 member.id 순서 => 페이지 경계가 실행 계획에 따라 바뀌지 않고 IDS_FIRST와 같은 결과
+     */
+
+    private static final int USERNAME = 1;
+    private static final int TEAM_NAME = 1 << 1;
+    private static final int AGE_GOE = 1 << 2;
+    private static final int AGE_LOE = 1 << 3;
+    private static final int AGE_EQ = 1 << 4;
+    private static final int TEAM_ID = 1 << 5;
+    private static final int SHAPES = 1 << 6;
+
+    private static final Param<String> usernameParam = new Param<>(String.class, "username");
+    private static final Param<String> teamNameParam = new Param<>(String.class, "teamName");
+    private static final Param<Long> teamIdParam = new Param<>(Long.class, "teamId");
+    private static final Param<Integer> ageGoeParam = new Param<>(Integer.class, "ageGoe");
+    private static final Param<Integer> ageLoeParam = new Param<>(Integer.class, "ageLoe");
+    private static final Param<Integer> ageEqParam = new Param<>(Integer.class, "ageEq");
+
+    private static final QMemberTeamDto projection = new QMemberTeamDto(
+            member.id.as("memberId"),
+            member.username,
+            member.age,
+            team.id.as("teamId"),
+            team.name.as("teamName")
+    );
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final TeamNameDictionary teamNameDictionary;
+
+    // 같은 모양을 동시에 만들어도 결과가 같기 때문에 lock 없이 나중에 만든걸로 덮어써도 됨
+    private final AtomicReferenceArray<Template> contentTemplates = new AtomicReferenceArray<>(SHAPES);
+    private final AtomicReferenceArray<Template> countTemplates = new AtomicReferenceArray<>(SHAPES);
+
+    MemberSearchTemplates(EntityManager em, TeamNameDictionary teamNameDictionary) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+        this.teamNameDictionary = teamNameDictionary;
+    }
+
+    List<MemberTeamDto> search(MemberSearchCondition condition) {
+        Search search = prepare(condition);
+        if (search.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return toDtos(contentQuery(search));
+    }
+
+    List<MemberTeamDto> search(MemberSearchCondition condition, long offset, int limit) {
+        Search search = prepare(condition);
+        if (search.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Query query = contentQuery(search)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit);
+        return toDtos(query);
+    }
+
+    /**
+     * 앞으로만 읽는 scroll (ResultSet TYPE_FORWARD_ONLY) => 읽은 row는 버려지기 때문에 메모리 사용량이 결과 개수와 상관 없음
+     * row는 toDto로 변환
+     */
+    ScrollableResults scroll(MemberSearchCondition condition, int fetchSize) {
+        // 없는 팀이어도 빈 ScrollableResults를 따로 만들지 않고 team.name 조건으로 조회
+        Search search = prepare(condition);
+        if (search.isEmpty()) {
+            search = Search.byTeamName(search.condition);
+        }
+        return contentQuery(search)
+                .unwrap(org.hibernate.query.Query.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    MemberTeamDto toDto(Object[] row) {
+        return projection.newInstance(row);
+    }
+
+    /**
+     * member -> team은 to-one 관계라서 left join을 해도 row 수가 바뀌지 않음
+     * team.name 조건이 있을 때만 team을 조인하고 나머지는 member 테이블만 count
+     */
+    long count(MemberSearchCondition condition) {
+        Search search = prepare(condition);
+        if (search.isEmpty()) {
+            return 0;
+        }
+        int shape = search.shape;
+        Template template = countTemplates.get(shape);
+        if (template == null) {
+            JPAQuery<Long> query = queryFactory
+                    .select(member.count())
+                    .from(member);
+            if ((shape & TEAM_NAME) != 0) {
+                query.leftJoin(member.team, team);
+            }
+            template = Template.of(em, query.where(predicates(shape)));
+            countTemplates.set(shape, template);
+        }
+        return ((Number) template.bind(em, search).getSingleResult()).longValue();
+    }
+
+    /**
+     * 정규화한 조건 + teamName을 팀 id로 바꿀 수 있으면 TEAM_NAME 대신 TEAM_ID 모양
+     */
+    private Search prepare(MemberSearchCondition condition) {
+        MemberSearchCondition normalized = condition.normalize();
+        Search search = Search.byTeamName(normalized);
+        if ((search.shape & TEAM_NAME) == 0) {
+            return search;
+        }
+
+        Optional<List<Long>> teamIds = teamNameDictionary.findIds(normalized.getTeamName());
+        if (teamIds.isEmpty() || teamIds.get().size() > 1) {
+            return search;
+        }
+        if (teamIds.get().isEmpty()) {
+            return Search.empty(normalized);
+        }
+        return Search.byTeamId(normalized, teamIds.get().get(0));
+    }
+
+    private Query contentQuery(Search search) {
+        int shape = search.shape;
+        Template template = contentTemplates.get(shape);
+        if (template == null) {
+            template = Template.of(em, queryFactory
+                    .select(projection)
+                    .from(member)
+                    .leftJoin(member.team, team)
+                    .where(predicates(shape))
+                    .orderBy(member.id.asc()));
+            contentTemplates.set(shape, template);
+        }
+        return template.bind(em, search);
+    }
+
+    private List<MemberTeamDto> toDtos(Query query) {
+        List<?> rows = query.getResultList();
+        List<MemberTeamDto> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            result.add(toDto((Object[]) row));
+        }
+        return result;
+    }
+
+    private static int shapeOf(MemberSearchCondition condition) {
+        int shape = 0;
+        if (hasText(condition.getUsername())) {
+            shape |= USERNAME;
+        }
+        if (hasText(condition.getTeamName())) {
+            shape |= TEAM_NAME;
+        }
+        if (condition.isAgeEq()) {
+            return shape | AGE_EQ;
+        }
+        if (condition.getAgeGoe() != null) {
+            shape |= AGE_GOE;
+        }
+        if (condition.getAgeLoe() != null) {
+            shape |= AGE_LOE;
+        }
+        return shape;
+    }
+
+    private static Predicate[] predicates(int shape) {
+        return new Predicate[]{
+                (shape & USERNAME) != 0 ? member.username.eq(usernameParam) : null,
+                (shape & TEAM_NAME) != 0 ? team.name.eq(teamNameParam) : null,
+                (shape & TEAM_ID) != 0 ? member.team.id.eq(teamIdParam) : null,
+                (shape & AGE_GOE) != 0 ? member.age.goe(ageGoeParam) : null,
+                (shape & AGE_LOE) != 0 ? member.age.loe(ageLoeParam) : null,
+                (shape & AGE_EQ) != 0 ? member.age.eq(ageEqParam) : null
+        };
+    }
+
+    private static Object valueOf(ParamExpression<?> param, Search search) {
+        MemberSearchCondition condition = search.condition;
+        switch (param.getName()) {
+            case "username":
+                return condition.getUsername();
+            case "teamName":
+                return condition.getTeamName();
+            case "teamId":
+                return search.teamId;
+            case "ageGoe":
+                return condition.getAgeGoe();
+            case "ageLoe":
+                return condition.getAgeLoe();
+            case "ageEq":
+                return condition.getAgeGoe();
+            default:
+                throw new IllegalStateException("unknown parameter: " + param.getName());
+        }
+    }
+
+    /**
+     * 직렬화된 JPQL + 위치 파라미터(?1, ?2 ...) 순서대로의 상수/Param 목록
+     */
+    private static class Template {
+
+        private final String jpql;
+        private final List<Object> constants;
+
+        private Template(String jpql, List<Object> constants) {
+            this.jpql = jpql;
+            this.constants = List.copyOf(constants);
+        }
+
+        static Template of(EntityManager em, JPAQueryBase<?, ?> query) {
+            QueryMetadata metadata = query.getMetadata();
+            JPQLSerializer serializer = new JPQLSerializer(JPAProvider.getTemplates(em), em);
+            serializer.serialize(metadata, false, null);
+            return new Template(serializer.toString(), serializer.getConstants());
+        }
+
+        Query bind(EntityManager em, Search search) {
+            Query query = em.createQuery(jpql);
+            for (int i = 0; i < constants.size(); i++) {
+                Object constant = constants.get(i);
+                Object value = constant instanceof ParamExpression
+                        ? valueOf((ParamExpression<?>) constant, search)
+                        : constant;
+                query.setParameter(i + 1, value);
+            }
+            return query;
+        }
+    }
+
+    /**
+     * 정규화된 조건 + 조건 모양 + 바인딩할 팀 id
+     */
+    private static class Search {
+
+        private final MemberSearchCondition condition;
+        private final int shape;
+        private final Long teamId;
+        private final boolean empty;
+
+        private Search(MemberSearchCondition condition, int shape, Long teamId, boolean empty) {
+            this.condition = condition;
+            this.shape = shape;
+            this.teamId = teamId;
+            this.empty = empty;
+        }
+
+        static Search byTeamName(MemberSearchCondition condition) {
+            return new Search(condition, shapeOf(condition), null, false);
+        }
+
+        static Search byTeamId(MemberSearchCondition condition, Long teamId) {
+            return new Search(condition, shapeOf(condition) & ~TEAM_NAME | TEAM_ID, teamId, false);
+        }
+
+        /**
+         * 없는 팀 => 결과가 있을 수 없음
+         */
+        static Search empty(MemberSearchCondition condition) {
+            return new Search(condition, shapeOf(condition), null, true);
+        }
+
+        boolean isEmpty() {
+            return empty;
+        }
+    }
+
+}
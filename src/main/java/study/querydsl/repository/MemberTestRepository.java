@@ -1,16 +1,23 @@
 package study.querydsl.repository;
 
+import com.querydsl.core.types.dsl.BooleanExpression;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.QMember;
+import study.querydsl.repository.cache.InvalidatesMemberCache;
+import study.querydsl.repository.support.BulkUpdateResult;
 import study.querydsl.repository.support.Querydsl4RepositorySupport;
 
 import java.util.List;
 
+import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
 
+@Repository
 public class MemberTestRepository extends Querydsl4RepositorySupport {
 
     public MemberTestRepository() {
@@ -27,4 +34,80 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
         return selectFrom(member)
                 .fetch();
     }
+
+    /**
+     * count query를 따로 안넘겨도 content query에서 만들어줌
+     * teamName 조건이 없으면 count query에서 team join이 빠짐
+     */
+    public Page<Member> applyPagination(MemberSearchCondition condition, Pageable pageable) {
+        return applyPagination(pageable, query -> query
+                .selectFrom(member)
+                .leftJoin(member.team, team)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe())
+                ));
+    }
+
+    /**
+     * group by 결과 페이징 => count query는 count(distinct team.name) (팀 없는 회원도 그룹 하나)
+     */
+    public Page<String> teamNamePage(Pageable pageable) {
+        return applyPagination(pageable, query -> query
+                .select(team.name)
+                .from(member)
+                .leftJoin(member.team, team)
+                .groupBy(team.name));
+    }
+
+    /**
+     * count query를 직접 넘기면 그 query의 fetchCount() (group by가 없는 query를 넘김)
+     */
+    public Page<String> teamNamePageWithCountQuery(Pageable pageable) {
+        return applyPagination(pageable, query -> query
+                        .select(team.name)
+                        .from(member)
+                        .leftJoin(member.team, team)
+                        .groupBy(team.name),
+                query -> query
+                        .selectFrom(team));
+    }
+
+    /**
+     * age > :age인 회원 나이 + 1 (member_id 범위별로 나눠서 chunk마다 커밋)
+     */
+    @InvalidatesMemberCache
+    public BulkUpdateResult bulkAgePlus(int age) {
+        return batchedUpdate(member, member.id)
+                .set(member.age, member.age.add(1))
+                .where(member.age.gt(age))
+                .execute();
+    }
+
+    /**
+     * id 목록을 나눠서 삭제
+     */
+    @InvalidatesMemberCache
+    public BulkUpdateResult deleteByIds(List<Long> ids) {
+        return batchedDelete(member, member.id)
+                .executeByIds(ids);
+    }
+
+    private BooleanExpression usernameEq(String username) {
+        return hasText(username) ? member.username.eq(username) : null;
+    }
+
+    private BooleanExpression teamNameEq(String teamName) {
+        return hasText(teamName) ? team.name.eq(teamName) : null;
+    }
+
+    private BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    private BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
 }
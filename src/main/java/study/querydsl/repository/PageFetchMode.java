@@ -0,0 +1,20 @@
+package study.querydsl.repository;
+
+/**
+ * 페이지 content를 가져오는 방식
+ */
+public enum PageFetchMode {
+
+    /**
+     * filter + offset/limit 한번에 projection까지 조회 (기존 방식)
+     */
+    SINGLE_QUERY,
+
+    /**
+     * 1. filter + 정렬 + offset/limit으로 member.id만 조회 (인덱스만으로 처리 가능)
+     * 2. 찾은 id들로 projection 조회 (where member.id in (...)) 후 1번 순서대로 정렬
+     * offset으로 건너뛰는 row들을 전체 컬럼으로 읽지 않기 때문에 row가 넓고 offset이 클수록 유리
+     */
+    IDS_FIRST
+
+}
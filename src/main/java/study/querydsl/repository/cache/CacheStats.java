@@ -0,0 +1,18 @@
+package study.querydsl.repository.cache;
+
+import lombok.Value;
+
+@Value
+public class CacheStats {
+
+    long hits;
+    long misses;
+    long evictions;
+    long size;
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+}
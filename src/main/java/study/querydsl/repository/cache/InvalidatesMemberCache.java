@@ -0,0 +1,16 @@
+package study.querydsl.repository.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Member를 변경하는 메서드(save, bulk update 등)에 붙이면
+ * 메서드가 정상 종료된 뒤 MemberChangedEvent를 발행 => Member 기반 캐시 무효화
+ * bulk 연산은 영속성 컨텍스트/엔티티 이벤트를 거치지 않기 때문에 이렇게 명시적으로 알려줘야 함
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface InvalidatesMemberCache {
+}
@@ -0,0 +1,71 @@
+package study.querydsl.repository.cache;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.entity.Team;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+public class MemberCacheEntityListener {
+
+    /**
+     * Member, Team 엔티티가 insert/update/delete되면 MemberChangedEvent 발행 (@EntityListeners)
+     * Team이면 TeamChangedEvent도 발행
+     * hibernate가 spring bean container로 생성하기 때문에 생성자 주입 가능
+     *
+     * 트랜잭션 안에서는 엔티티마다 발행하지 않고 트랜잭션이 끝날 때 한번만 발행 (saveAll 1000건 => 이벤트 1번)
+     * JPQL bulk update, JDBC insert는 엔티티 이벤트가 없기 때문에 @InvalidatesMemberCache로 따로 알려줘야 함
+     */
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MemberCacheEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChanged(Object entity) {
+        boolean teamChanged = entity instanceof Team;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(teamChanged);
+            return;
+        }
+
+        PublishOnCompletion registered = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(synchronization -> synchronization instanceof PublishOnCompletion)
+                .map(synchronization -> (PublishOnCompletion) synchronization)
+                .findFirst()
+                .orElse(null);
+        if (registered == null) {
+            registered = new PublishOnCompletion();
+            TransactionSynchronizationManager.registerSynchronization(registered);
+        }
+        registered.teamChanged |= teamChanged;
+    }
+
+    private void publish(boolean teamChanged) {
+        eventPublisher.publishEvent(new MemberChangedEvent());
+        if (teamChanged) {
+            eventPublisher.publishEvent(new TeamChangedEvent());
+        }
+    }
+
+    /**
+     * 커밋/롤백 후에 발행 => 이벤트 리스너(AFTER_COMPLETION, fallbackExecution)가 바로 실행됨
+     */
+    private class PublishOnCompletion implements TransactionSynchronization {
+
+        private boolean teamChanged;
+
+        @Override
+        public void afterCompletion(int status) {
+            publish(teamChanged);
+        }
+    }
+
+}
@@ -0,0 +1,21 @@
+package study.querydsl.repository.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MemberCacheInvalidationAspect {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @AfterReturning("@annotation(study.querydsl.repository.cache.InvalidatesMemberCache)")
+    public void publishMemberChanged() {
+        eventPublisher.publishEvent(new MemberChangedEvent());
+    }
+
+}
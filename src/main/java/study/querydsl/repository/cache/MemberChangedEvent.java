@@ -0,0 +1,7 @@
+package study.querydsl.repository.cache;
+
+/**
+ * Member 데이터가 바뀌었다는 이벤트 (Member 기반 캐시들을 비우는 용도)
+ */
+public class MemberChangedEvent {
+}
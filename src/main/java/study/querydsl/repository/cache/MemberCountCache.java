@@ -0,0 +1,47 @@
+package study.querydsl.repository.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+@Component
+public class MemberCountCache {
+
+    /**
+     * 검색 조건별 totalCount 캐시
+     * 페이지를 넘길때마다 같은 조건으로 count query를 다시 날릴 필요가 없음
+     * ttl 기본값 0 => 사용하지 않음
+     *
+     * 변경이 커밋(또는 롤백)된 뒤에 비워야 다른 트랜잭션이 커밋 전 값을 다시 채워넣지 않음
+     */
+
+    private final TtlCache<MemberSearchCondition, Long> cache;
+
+    public MemberCountCache(@Value("${member.search.count-cache.ttl:0s}") Duration ttl,
+                            @Value("${member.search.count-cache.max-size:1000}") int maxSize) {
+        this.cache = new TtlCache<>(ttl, maxSize);
+    }
+
+    public Long get(MemberSearchCondition condition, Supplier<Long> countQuery) {
+        return cache.get(condition.normalize(), countQuery);
+    }
+
+    public boolean contains(MemberSearchCondition condition) {
+        return cache.contains(condition.normalize());
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+}
@@ -0,0 +1,145 @@
+package study.querydsl.repository.cache;
+
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.support.ReadOnlyQueryExecutor;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+@Component
+public class MemberPagePrefetcher {
+
+    /**
+     * page N을 조회하면 N+1 페이지를 백그라운드에서 미리 조회해서 잠깐(ttl) 캐시
+     * 다음 페이지를 누르면 DB를 거치지 않고 바로 응답
+     *   * 캐시 key : 정규화된 검색 조건 + page + size + sort
+     *   * 미리 조회는 ReadOnlyQueryExecutor에 놀고 있는 스레드가 있을 때만 (요청 처리용 커넥션을 뺏지 않음)
+     *   * wasted : 미리 조회했지만 한번도 사용되지 않고 만료/제거된 페이지 수
+     * member.search.prefetch.enabled 기본값 false
+     */
+
+    private final boolean enabled;
+    private final ReadOnlyQueryExecutor queryExecutor;
+    private final TtlCache<PageKey, Prefetched> cache;
+
+    private final AtomicLong prefetched = new AtomicLong();
+    private final AtomicLong wasted = new AtomicLong();
+
+    public MemberPagePrefetcher(ReadOnlyQueryExecutor queryExecutor,
+                                @Value("${member.search.prefetch.enabled:false}") boolean enabled,
+                                @Value("${member.search.prefetch.ttl:5s}") Duration ttl,
+                                @Value("${member.search.prefetch.max-size:200}") int maxSize) {
+        this.enabled = enabled;
+        this.queryExecutor = queryExecutor;
+        this.cache = new TtlCache<>(ttl, maxSize, removed -> {
+            if (!removed.isUsed()) {
+                wasted.incrementAndGet();
+            }
+        });
+    }
+
+    public Page<MemberTeamDto> fetch(MemberSearchCondition condition, Pageable pageable,
+                                     BiFunction<MemberSearchCondition, Pageable, Page<MemberTeamDto>> query) {
+        if (!enabled) {
+            return query.apply(condition, pageable);
+        }
+
+        Prefetched cached = cache.getIfPresent(PageKey.of(condition, pageable));
+        Page<MemberTeamDto> page;
+        if (cached != null) {
+            cached.markUsed();
+            page = cached.getPage();
+        } else {
+            page = query.apply(condition, pageable);
+        }
+
+        if (page.hasNext()) {
+            prefetch(condition, page.nextPageable(), query);
+        }
+        return page;
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats cacheStats = cache.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", cacheStats.getHits());
+        stats.put("misses", cacheStats.getMisses());
+        stats.put("hitRatio", cacheStats.getHitRatio());
+        stats.put("prefetched", prefetched.get());
+        stats.put("wasted", wasted.get());
+        stats.put("size", cacheStats.getSize());
+        return stats;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    private void prefetch(MemberSearchCondition condition, Pageable next,
+                          BiFunction<MemberSearchCondition, Pageable, Page<MemberTeamDto>> query) {
+        PageKey key = PageKey.of(condition, next);
+        if (cache.contains(key)) {
+            return;
+        }
+        queryExecutor.submitIfIdle(() -> {
+            prefetched.incrementAndGet();
+            return cache.load(key, () -> new Prefetched(query.apply(condition, next)));
+        });
+    }
+
+    @EqualsAndHashCode
+    static class PageKey {
+
+        private final MemberSearchCondition condition;
+        private final int page;
+        private final int size;
+        private final Sort sort;
+
+        PageKey(MemberSearchCondition condition, int page, int size, Sort sort) {
+            this.condition = condition;
+            this.page = page;
+            this.size = size;
+            this.sort = sort;
+        }
+
+        static PageKey of(MemberSearchCondition condition, Pageable pageable) {
+            return new PageKey(condition.normalize(), pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+        }
+    }
+
+    static class Prefetched {
+
+        private final Page<MemberTeamDto> page;
+        private volatile boolean used;
+
+        Prefetched(Page<MemberTeamDto> page) {
+            this.page = page;
+        }
+
+        Page<MemberTeamDto> getPage() {
+            return page;
+        }
+
+        boolean isUsed() {
+            return used;
+        }
+
+        void markUsed() {
+            used = true;
+        }
+    }
+
+}
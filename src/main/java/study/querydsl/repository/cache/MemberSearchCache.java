@@ -0,0 +1,68 @@
+package study.querydsl.repository.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+@Component
+public class MemberSearchCache {
+
+    /**
+     * 검색 조건별 search 결과 캐시 (같은 teamName + 나이 범위 조건이 계속 반복되는 경우)
+     *   * key : 정규화된 검색 조건
+     *   * MemberTeamDto는 변경 가능한 객체라서 꺼낼 때마다 사본을 반환 (호출한 쪽에서 바꿔도 캐시는 그대로)
+     *   * Member/Team 변경(엔티티 리스너, @InvalidatesMemberCache)이 커밋(또는 롤백)된 뒤에 전부 비움
+     *   * entry 개수(max-size)와 함께 캐시에 들어있는 전체 row 수(max-rows)도 제한
+     *     => 조건이 없거나 큰 팀 조건처럼 결과가 max-rows보다 큰 검색은 캐시하지 않음
+     * ttl 기본값 0 => 사용하지 않음
+     */
+
+    private final TtlCache<MemberSearchCondition, List<MemberTeamDto>> cache;
+
+    public MemberSearchCache(@Value("${member.search.result-cache.ttl:0s}") Duration ttl,
+                             @Value("${member.search.result-cache.max-size:500}") int maxSize,
+                             @Value("${member.search.result-cache.max-rows:10000}") long maxRows) {
+        this.cache = new TtlCache<>(ttl, maxSize, maxRows, List::size);
+    }
+
+    public List<MemberTeamDto> get(MemberSearchCondition condition, Supplier<List<MemberTeamDto>> searchQuery) {
+        if (!cache.isEnabled()) {
+            return searchQuery.get();
+        }
+        return copy(cache.get(condition.normalize(), searchQuery));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 캐시에 들어있는 전체 row 수
+     */
+    public long rows() {
+        return cache.weight();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    private static List<MemberTeamDto> copy(List<MemberTeamDto> results) {
+        List<MemberTeamDto> copy = new ArrayList<>(results.size());
+        for (MemberTeamDto result : results) {
+            copy.add(new MemberTeamDto(result.getMemberId(), result.getUsername(), result.getAge(),
+                    result.getTeamId(), result.getTeamName()));
+        }
+        return copy;
+    }
+
+}
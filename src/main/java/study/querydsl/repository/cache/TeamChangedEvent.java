@@ -0,0 +1,7 @@
+package study.querydsl.repository.cache;
+
+/**
+ * Team 데이터(이름, 추가/삭제)가 바뀌었다는 이벤트 (팀 이름 기반 캐시를 비우는 용도)
+ */
+public class TeamChangedEvent {
+}
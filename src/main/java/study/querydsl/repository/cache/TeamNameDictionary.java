@@ -0,0 +1,143 @@
+package study.querydsl.repository.cache;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static study.querydsl.entity.QTeam.team;
+
+@Component
+public class TeamNameDictionary {
+
+    /**
+     * 팀 이름 -> 팀 id 목록 (team 테이블 전체를 메모리에 들고 있음, 팀 수가 적다는 전제)
+     * 검색 조건의 teamName을 team.id로 바꿔서 team 조인 없이 member.team_id(FK)로 조회하는 용도
+     *   * 없는 팀 이름이면 빈 목록 => 검색하지 않고 바로 빈 결과
+     *   * Team 엔티티 변경(TeamChangedEvent)이 커밋(또는 롤백)된 뒤에 비우고 다음 조회 때 다시 읽음
+     *   * JPQL bulk 같이 이벤트 없이 바뀌는 경우를 대비해서 ttl이 지나도 다시 읽음
+     *   * 없는 이름은 마지막으로 읽은 지 MISS_RELOAD_INTERVAL이 지났으면 한번 더 읽어보고 판단
+     *   * 쓰기 트랜잭션 안에서는 사용하지 않음 (아직 반영되지 않은 팀 변경이 있을 수 있음) => empty
+     * member.search.team-dictionary.enabled 기본값 false
+     */
+
+    private static final long MISS_RELOAD_INTERVAL_MILLIS = 1000;
+
+    private final JPAQueryFactory queryFactory;
+    private final boolean enabled;
+    private final long ttlMillis;
+
+    private volatile Snapshot snapshot;
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+
+    public TeamNameDictionary(EntityManager em,
+                              @Value("${member.search.team-dictionary.enabled:false}") boolean enabled,
+                              @Value("${member.search.team-dictionary.ttl:1m}") Duration ttl) {
+        this.queryFactory = new JPAQueryFactory(em);
+        this.enabled = enabled;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * 사용할 수 없으면 empty => 기존처럼 team.name 조건으로 조회
+     */
+    public Optional<List<Long>> findIds(String teamName) {
+        if (!enabled || isWriteTransaction()) {
+            return Optional.empty();
+        }
+
+        long now = System.currentTimeMillis();
+        Snapshot current = snapshot;
+        if (current == null || now - current.loadedAt >= ttlMillis) {
+            current = reload();
+        }
+
+        List<Long> ids = current.ids.get(teamName);
+        if (ids == null && now - current.loadedAt >= MISS_RELOAD_INTERVAL_MILLIS) {
+            current = reload();
+            ids = current.ids.get(teamName);
+        }
+
+        if (ids == null) {
+            misses.incrementAndGet();
+            return Optional.of(List.of());
+        }
+        hits.incrementAndGet();
+        return Optional.of(ids);
+    }
+
+    public Map<String, Object> stats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("reloads", reloads.get());
+        stats.put("size", current != null ? current.ids.size() : 0);
+        return stats;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public synchronized void onTeamChanged(TeamChangedEvent event) {
+        generation++;
+        snapshot = null;
+    }
+
+    /**
+     * 읽는 도중에 비워졌으면(onTeamChanged) 읽은 결과는 이번 조회에만 쓰고 저장하지 않음
+     */
+    private Snapshot reload() {
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+
+        Map<String, List<Long>> ids = new HashMap<>();
+        for (Tuple row : queryFactory.select(team.id, team.name).from(team).fetch()) {
+            ids.computeIfAbsent(row.get(team.name), name -> new ArrayList<>()).add(row.get(team.id));
+        }
+        ids.replaceAll((name, teamIds) -> List.copyOf(teamIds));
+        reloads.incrementAndGet();
+
+        Snapshot loaded = new Snapshot(ids, System.currentTimeMillis());
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                snapshot = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private static boolean isWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static class Snapshot {
+
+        private final Map<String, List<Long>> ids;
+        private final long loadedAt;
+
+        Snapshot(Map<String, List<Long>> ids, long loadedAt) {
+            this.ids = ids;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+}
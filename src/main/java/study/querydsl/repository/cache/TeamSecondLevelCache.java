@@ -0,0 +1,63 @@
+package study.querydsl.repository.cache;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class TeamSecondLevelCache {
+
+    /**
+     * Team 2차 캐시 region 지표
+     *   * JPA로 변경하면 hibernate가 알아서 갱신/무효화 (JPQL bulk update도 대상 테이블의 region을 비움)
+     *   * Team.members 컬렉션은 캐시하지 않음 => 컬렉션 캐시에는 member id만 들어가고 Member는 캐시하지 않기 때문에
+     *     hit이어도 member를 id마다 하나씩 조회하게 됨 (컬렉션 query 한번보다 느림)
+     * region 이름에 '.'이 있으면 caffeine이 application.conf에서 설정을 찾지 못함 => @Cache(region)으로 따로 지정
+     */
+
+    public static final String ENTITY_REGION = "team";
+
+    private static final Map<String, Object> DISABLED = Map.of("status", "disabled");
+
+    private final SessionFactory sessionFactory;
+
+    public TeamSecondLevelCache(EntityManagerFactory emf) {
+        this.sessionFactory = emf.unwrap(SessionFactory.class);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put(ENTITY_REGION, regionStats(sessionFactory, ENTITY_REGION));
+        return stats;
+    }
+
+    /**
+     * 2차 캐시 region 하나의 hit/miss
+     * 통계(hibernate.generate_statistics)나 2차 캐시가 꺼져 있으면 0 대신 disabled
+     */
+    static Map<String, Object> regionStats(SessionFactory sessionFactory, String region) {
+        if (!sessionFactory.getStatistics().isStatisticsEnabled()
+                || sessionFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegion(region) == null) {
+            return DISABLED;
+        }
+        CacheRegionStatistics statistics = sessionFactory.getStatistics().getDomainDataRegionStatistics(region);
+        if (statistics == null) {
+            return DISABLED;
+        }
+        long hits = statistics.getHitCount();
+        long misses = statistics.getMissCount();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        stats.put("puts", statistics.getPutCount());
+        stats.put("size", statistics.getElementCountInMemory());
+        return stats;
+    }
+
+}
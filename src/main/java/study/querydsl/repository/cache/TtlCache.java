@@ -0,0 +1,209 @@
+package study.querydsl.repository.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+public class TtlCache<K, V> {
+
+    /**
+     * 크기 제한(LRU) + 만료 시간(TTL)이 있는 단순한 in-memory 캐시
+     * ttl이나 maxSize가 0 이하면 캐시를 사용하지 않고 매번 loader를 호출
+     *
+     * invalidateAll() 도중에 조회중이던 값이 뒤늦게 들어가서 stale 데이터가 남는것을 막기 위해
+     * 조회 시작 시점의 generation이 바뀌었으면 결과를 캐시에 넣지 않음
+     *
+     * removalListener : 만료/크기 초과/무효화로 캐시에서 빠진 값을 받음
+     *
+     * maxWeight > 0 이면 entry 개수와 함께 weigher로 계산한 전체 무게도 제한 (예: 결과 List의 row 수 합)
+     *   * 무게가 maxWeight보다 큰 값 하나는 캐시에 넣지 않음
+     */
+
+    private final long ttlMillis;
+    private final int maxSize;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final Consumer<V> removalListener;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long generation;
+    private long totalWeight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public TtlCache(Duration ttl, int maxSize) {
+        this(ttl, maxSize, removed -> {
+        });
+    }
+
+    public TtlCache(Duration ttl, int maxSize, Consumer<V> removalListener) {
+        this(ttl, maxSize, 0, value -> 0, removalListener);
+    }
+
+    public TtlCache(Duration ttl, int maxSize, long maxWeight, ToLongFunction<V> weigher) {
+        this(ttl, maxSize, maxWeight, weigher, removed -> {
+        });
+    }
+
+    public TtlCache(Duration ttl, int maxSize, long maxWeight, ToLongFunction<V> weigher, Consumer<V> removalListener) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxSize = maxSize;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.removalListener = removalListener;
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0 && maxSize > 0;
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        if (!isEnabled()) {
+            return loader.get();
+        }
+
+        long loadGeneration;
+        synchronized (this) {
+            V cached = lookup(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        misses.incrementAndGet();
+        V value = loader.get();
+        if (value != null) {
+            put(key, value, loadGeneration);
+        }
+        return value;
+    }
+
+    /**
+     * 캐시에 있는 값만 조회 (없으면 null)
+     */
+    public synchronized V getIfPresent(K key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        V cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return cached;
+    }
+
+    /**
+     * 캐시를 보지 않고 loader로 조회해서 캐시에 넣음 (미리 채워넣기 용도)
+     */
+    public V load(K key, Supplier<V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        V value = loader.get();
+        if (value != null && isEnabled()) {
+            put(key, value, loadGeneration);
+        }
+        return value;
+    }
+
+    public synchronized boolean contains(K key) {
+        return isEnabled() && lookup(key) != null;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            totalWeight -= removed.weight;
+            removalListener.accept(removed.value);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.values().forEach(entry -> removalListener.accept(entry.value));
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    /**
+     * 캐시에 들어있는 값들의 무게 합
+     */
+    public synchronized long weight() {
+        return totalWeight;
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits.get(), misses.get(), evictions.get(), entries.size());
+    }
+
+    private V lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key);
+            totalWeight -= entry.weight;
+            evictions.incrementAndGet();
+            removalListener.accept(entry.value);
+            return null;
+        }
+        return entry.value;
+    }
+
+    private synchronized void put(K key, V value, long loadGeneration) {
+        if (loadGeneration != generation) {
+            return;
+        }
+        long weight = weigher.applyAsLong(value);
+        if (maxWeight > 0 && weight > maxWeight) {
+            return;
+        }
+        Entry<V> replaced = entries.put(key, new Entry<>(value, weight, System.currentTimeMillis() + ttlMillis));
+        totalWeight += weight;
+        if (replaced != null) {
+            totalWeight -= replaced.weight;
+            removalListener.accept(replaced.value);
+        }
+
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxSize || (maxWeight > 0 && totalWeight > maxWeight)) && eldest.hasNext()) {
+            Entry<V> evicted = eldest.next().getValue();
+            eldest.remove();
+            totalWeight -= evicted.weight;
+            evictions.incrementAndGet();
+            removalListener.accept(evicted.value);
+        }
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long weight;
+        private final long expiresAt;
+
+        Entry(V value, long weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+}
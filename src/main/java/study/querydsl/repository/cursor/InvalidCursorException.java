@@ -0,0 +1,22 @@
+package study.querydsl.repository.cursor;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 위변조됐거나, 검색 조건이 바뀌었거나, 지원하지 않는 정렬을 담은 cursor
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,158 @@
+package study.querydsl.repository.cursor;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import com.querydsl.core.types.dsl.Expressions;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Getter
+public class MemberCursor {
+
+    /**
+     * 다중 컬럼 keyset 페이징 위치
+     *   * keys/directions : 정렬 (마지막은 항상 id => 정렬 값이 같은 row들 사이의 순서 보장)
+     *   * values : 마지막으로 받은 row의 정렬 값 (비어있으면 첫 페이지)
+     *   * fingerprint : cursor를 만들때의 검색 조건의 SHA-256 (서명된 payload 안에 있음, 조건이 바뀌면 cursor를 사용할 수 없음)
+     *   * backward : true면 이전 페이지 방향
+     */
+
+    private final List<MemberSortKey> keys;
+    private final List<Sort.Direction> directions;
+    private final List<Object> values;
+    private final String fingerprint;
+    private final boolean backward;
+
+    public MemberCursor(List<MemberSortKey> keys, List<Sort.Direction> directions, List<Object> values,
+                        String fingerprint, boolean backward) {
+        this.keys = List.copyOf(keys);
+        this.directions = List.copyOf(directions);
+        this.values = Collections.unmodifiableList(new ArrayList<>(values));
+        this.fingerprint = fingerprint;
+        this.backward = backward;
+    }
+
+    public static MemberCursor first(Sort sort, MemberSearchCondition condition) {
+        List<MemberSortKey> keys = new ArrayList<>();
+        List<Sort.Direction> directions = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            MemberSortKey key = MemberSortKey.of(order.getProperty());
+            if (!keys.contains(key)) {
+                keys.add(key);
+                directions.add(order.getDirection());
+            }
+        }
+        if (!keys.contains(MemberSortKey.ID)) {
+            keys.add(MemberSortKey.ID);
+            directions.add(Sort.Direction.ASC);
+        }
+        return new MemberCursor(keys, directions, Collections.emptyList(), fingerprint(condition), false);
+    }
+
+    /**
+     * 정규화한 검색 조건의 SHA-256 (hashCode는 32bit라 다른 조건끼리 쉽게 겹침)
+     * 값마다 길이를 앞에 붙여서 구분자가 들어간 값끼리 겹치지 않게 함, null은 "-"
+     */
+    public static String fingerprint(MemberSearchCondition condition) {
+        MemberSearchCondition normalized = condition.normalize();
+        StringBuilder canonical = new StringBuilder();
+        for (Object value : Arrays.asList(normalized.getUsername(), normalized.getTeamName(),
+                normalized.getAgeGoe(), normalized.getAgeLoe())) {
+            if (value == null) {
+                canonical.append('-');
+            } else {
+                String text = value.toString();
+                canonical.append(text.length()).append(':').append(text);
+            }
+            canonical.append(';');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * row 다음 페이지
+     */
+    public MemberCursor after(MemberTeamDto row) {
+        return new MemberCursor(keys, directions, valuesOf(row), fingerprint, false);
+    }
+
+    /**
+     * row 이전 페이지
+     */
+    public MemberCursor before(MemberTeamDto row) {
+        return new MemberCursor(keys, directions, valuesOf(row), fingerprint, true);
+    }
+
+    public boolean isFirst() {
+        return values.isEmpty();
+    }
+
+    /**
+     * (k1, k2, ..., id) > (v1, v2, ..., vn) row value 비교를 풀어서 쓴 조건
+     * k1 > v1 or (k1 = v1 and k2 > v2) or ... (desc 컬럼은 <, 이전 페이지 방향이면 전부 반대)
+     * 컬럼마다 정렬 방향이 달라도 되고, 앞에 k1 >= v1을 붙여서 첫번째 정렬 컬럼 인덱스로 범위를 좁힘
+     */
+    public BooleanExpression predicate() {
+        if (isFirst()) {
+            return null;
+        }
+
+        BooleanExpression seek = null;
+        BooleanExpression equalPrefix = null;
+        for (int i = 0; i < keys.size(); i++) {
+            Expression<?> path = keys.get(i).getPath();
+            Expression<Object> value = Expressions.constant(values.get(i));
+
+            BooleanExpression beyond = Expressions.booleanOperation(isAscending(i) ? Ops.GT : Ops.LT, path, value);
+            BooleanExpression branch = equalPrefix == null ? beyond : equalPrefix.and(beyond);
+            seek = seek == null ? branch : seek.or(branch);
+
+            BooleanExpression equal = Expressions.booleanOperation(Ops.EQ, path, value);
+            equalPrefix = equalPrefix == null ? equal : equalPrefix.and(equal);
+        }
+
+        BooleanExpression leadingBound = Expressions.booleanOperation(isAscending(0) ? Ops.GOE : Ops.LOE,
+                keys.get(0).getPath(), Expressions.constant(values.get(0)));
+        return leadingBound.and(seek);
+    }
+
+    public OrderSpecifier<?>[] orderSpecifiers() {
+        OrderSpecifier<?>[] specifiers = new OrderSpecifier<?>[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            ComparableExpressionBase<?> path = keys.get(i).getPath();
+            specifiers[i] = isAscending(i) ? path.asc() : path.desc();
+        }
+        return specifiers;
+    }
+
+    private boolean isAscending(int index) {
+        return directions.get(index).isAscending() != backward;
+    }
+
+    private List<Object> valuesOf(MemberTeamDto row) {
+        return keys.stream()
+                .map(key -> key.valueFrom(row))
+                .collect(Collectors.toList());
+    }
+
+}
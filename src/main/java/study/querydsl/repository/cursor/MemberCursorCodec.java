@@ -0,0 +1,151 @@
+package study.querydsl.repository.cursor;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.CursorPage;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.springframework.util.StringUtils.hasText;
+
+@Component
+public class MemberCursorCodec {
+
+    /**
+     * MemberCursor <=> 클라이언트에게 주는 불투명(opaque) 토큰
+     * 토큰 = base64url(payload json) + "." + base64url(HMAC-SHA256(payload))
+     * 클라이언트는 정렬 값을 몰라도 되고, 값을 바꾸면 서명이 맞지 않아서 거부됨
+     *
+     * member.cursor.secret이 없으면 기동할 때마다 랜덤 키 => 재기동하거나 서버가 여러대면 기존 토큰은 무효
+     */
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec secretKey;
+
+    public MemberCursorCodec(ObjectMapper objectMapper, @Value("${member.cursor.secret:}") String secret) {
+        this.objectMapper = objectMapper;
+        this.secretKey = new SecretKeySpec(hasText(secret) ? secret.getBytes(StandardCharsets.UTF_8) : randomKey(), ALGORITHM);
+    }
+
+    public String encode(MemberCursor cursor) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("k", cursor.getKeys().stream().map(Enum::name).collect(Collectors.toList()));
+        payload.put("d", cursor.getDirections().stream().map(Enum::name).collect(Collectors.toList()));
+        payload.put("v", cursor.getValues().stream().map(String::valueOf).collect(Collectors.toList()));
+        payload.put("f", cursor.getFingerprint());
+        payload.put("b", cursor.isBackward());
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(payload);
+            return ENCODER.encodeToString(json) + "." + ENCODER.encodeToString(sign(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 서명 검증 + 현재 검색 조건이 cursor를 만들때와 같은지 확인
+     */
+    @SuppressWarnings("unchecked")
+    public MemberCursor decode(String token, MemberSearchCondition condition) {
+        try {
+            int separator = token.indexOf('.');
+            if (separator < 0) {
+                throw new InvalidCursorException("malformed cursor");
+            }
+            byte[] json = DECODER.decode(token.substring(0, separator));
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(json), signature)) {
+                throw new InvalidCursorException("cursor signature mismatch");
+            }
+
+            Map<String, Object> payload = objectMapper.readValue(json, PAYLOAD_TYPE);
+            if (!MemberCursor.fingerprint(condition).equals(payload.get("f"))) {
+                throw new InvalidCursorException("search condition changed since the cursor was issued");
+            }
+
+            List<MemberSortKey> keys = new ArrayList<>();
+            List<Sort.Direction> directions = new ArrayList<>();
+            List<Object> values = new ArrayList<>();
+            List<String> rawKeys = (List<String>) payload.get("k");
+            List<String> rawDirections = (List<String>) payload.get("d");
+            List<String> rawValues = (List<String>) payload.get("v");
+            for (int i = 0; i < rawKeys.size(); i++) {
+                MemberSortKey key = MemberSortKey.valueOf(rawKeys.get(i));
+                keys.add(key);
+                directions.add(Sort.Direction.valueOf(rawDirections.get(i)));
+                if (!rawValues.isEmpty()) {
+                    values.add(key.parse(rawValues.get(i)));
+                }
+            }
+            return new MemberCursor(keys, directions, values, (String) payload.get("f"), (Boolean) payload.get("b"));
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (RuntimeException | IOException e) {
+            throw new InvalidCursorException("malformed cursor", e);
+        }
+    }
+
+    /**
+     * 조회 결과로 앞/뒤 페이지 토큰을 만듦
+     * slice.hasNext()는 cursor 방향으로 더 있는지
+     */
+    public CursorPage<MemberTeamDto> toPage(MemberCursor cursor, Slice<MemberTeamDto> slice) {
+        List<MemberTeamDto> content = slice.getContent();
+        if (content.isEmpty()) {
+            return new CursorPage<>(content, null, null);
+        }
+
+        MemberTeamDto first = content.get(0);
+        MemberTeamDto last = content.get(content.size() - 1);
+
+        boolean hasNext = cursor.isBackward() || slice.hasNext();
+        boolean hasPrevious = cursor.isBackward() ? slice.hasNext() : !cursor.isFirst();
+
+        return new CursorPage<>(content,
+                hasNext ? encode(cursor.after(last)) : null,
+                hasPrevious ? encode(cursor.before(first)) : null);
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(secretKey);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] randomKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+
+}
@@ -0,0 +1,53 @@
+package study.querydsl.repository.cursor;
+
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import lombok.Getter;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * cursor 페이징에서 정렬 가능한 컬럼
+ * keyset 조건(a > ? or (a = ? and b > ?))은 null 비교가 안되기 때문에 not null 컬럼만 허용
+ */
+@Getter
+public enum MemberSortKey {
+
+    ID("id", member.id, MemberTeamDto::getMemberId, Long::valueOf),
+    AGE("age", member.age, MemberTeamDto::getAge, Integer::valueOf);
+
+    private final String property;
+    private final ComparableExpressionBase<?> path;
+    private final Function<MemberTeamDto, Object> extractor;
+    private final Function<String, Object> parser;
+
+    MemberSortKey(String property, ComparableExpressionBase<?> path,
+                  Function<MemberTeamDto, Object> extractor, Function<String, Object> parser) {
+        this.property = property;
+        this.path = path;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public static MemberSortKey of(String property) {
+        if ("memberId".equals(property)) {
+            return ID;
+        }
+        return Arrays.stream(values())
+                .filter(key -> key.property.equals(property))
+                .findFirst()
+                .orElseThrow(() -> new InvalidCursorException("unsupported sort property: " + property));
+    }
+
+    public Object valueFrom(MemberTeamDto row) {
+        return extractor.apply(row);
+    }
+
+    public Object parse(String value) {
+        return parser.apply(value);
+    }
+
+}
@@ -0,0 +1,26 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPADeleteClause;
+
+import javax.persistence.EntityManager;
+
+public class BatchedDeleteClause extends BatchedWriteClause<BatchedDeleteClause> {
+
+    BatchedDeleteClause(EntityManager em, EntityPath<?> path, NumberPath<Long> idPath, ChunkedUpdateExecutor executor) {
+        super(em, path, idPath, executor);
+    }
+
+    @Override
+    protected long executeChunk(Predicate predicate) {
+        return new JPADeleteClause(em, path).where(predicate).execute();
+    }
+
+    @Override
+    protected String operation() {
+        return "delete";
+    }
+
+}
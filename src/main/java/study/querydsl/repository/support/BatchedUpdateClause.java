@@ -0,0 +1,45 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class BatchedUpdateClause extends BatchedWriteClause<BatchedUpdateClause> {
+
+    private final List<Consumer<JPAUpdateClause>> sets = new ArrayList<>();
+
+    BatchedUpdateClause(EntityManager em, EntityPath<?> path, NumberPath<Long> idPath, ChunkedUpdateExecutor executor) {
+        super(em, path, idPath, executor);
+    }
+
+    public <T> BatchedUpdateClause set(Path<T> target, T value) {
+        sets.add(clause -> clause.set(target, value));
+        return this;
+    }
+
+    public <T> BatchedUpdateClause set(Path<T> target, Expression<? extends T> expression) {
+        sets.add(clause -> clause.set(target, expression));
+        return this;
+    }
+
+    @Override
+    protected long executeChunk(Predicate predicate) {
+        JPAUpdateClause clause = new JPAUpdateClause(em, path);
+        sets.forEach(set -> set.accept(clause));
+        return clause.where(predicate).execute();
+    }
+
+    @Override
+    protected String operation() {
+        return "update";
+    }
+
+}
@@ -0,0 +1,89 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+
+/**
+ * update/delete를 id 범위 또는 id 목록 단위로 나눠서 chunk마다 별도 트랜잭션으로 실행 (ChunkedUpdateExecutor)
+ * where 조건은 chunk 조건(id between, id in)과 함께 chunk마다 다시 적용됨
+ * JPQL update/delete는 join을 쓸 수 없기 때문에 where에는 대상 엔티티(path)의 속성만 사용
+ */
+public abstract class BatchedWriteClause<C extends BatchedWriteClause<C>> {
+
+    protected final EntityManager em;
+    protected final EntityPath<?> path;
+    private final NumberPath<Long> idPath;
+    private final ChunkedUpdateExecutor executor;
+
+    private Predicate where;
+    private int chunkSize;
+    private int parallelism;
+
+    protected BatchedWriteClause(EntityManager em, EntityPath<?> path, NumberPath<Long> idPath,
+                                 ChunkedUpdateExecutor executor) {
+        this.em = em;
+        this.path = path;
+        this.idPath = idPath;
+        this.executor = executor;
+        this.chunkSize = executor.getDefaultChunkSize();
+        this.parallelism = executor.getDefaultParallelism();
+    }
+
+    public C where(Predicate... predicates) {
+        where = ExpressionUtils.allOf(where, ExpressionUtils.allOf(predicates));
+        return self();
+    }
+
+    public C chunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        return self();
+    }
+
+    public C parallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return self();
+    }
+
+    /**
+     * where 조건에 맞는 row들의 id 최솟값 ~ 최댓값을 chunkSize 크기의 범위로 나눠서 실행
+     */
+    public BulkUpdateResult execute() {
+        Object[] idRange = new JPAQueryFactory(em)
+                .select(idPath.min(), idPath.max())
+                .from(path)
+                .where(where)
+                .fetchOne()
+                .toArray();
+
+        return executor.execute(name(), (Long) idRange[0], (Long) idRange[1], chunkSize, parallelism,
+                (from, to) -> executeChunk(ExpressionUtils.allOf(where, idPath.goe(from), idPath.lt(to))));
+    }
+
+    /**
+     * id 목록을 chunkSize개씩 나눠서 where id in (...) 으로 실행
+     */
+    public BulkUpdateResult executeByIds(Collection<Long> ids) {
+        return executor.executeByIds(name(), ids, chunkSize, parallelism,
+                chunk -> executeChunk(ExpressionUtils.allOf(where, idPath.in(chunk))));
+    }
+
+    protected abstract long executeChunk(Predicate predicate);
+
+    protected abstract String operation();
+
+    private String name() {
+        return operation() + "-" + path.getMetadata().getName();
+    }
+
+    @SuppressWarnings("unchecked")
+    private C self() {
+        return (C) this;
+    }
+
+}
@@ -0,0 +1,18 @@
+package study.querydsl.repository.support;
+
+import lombok.Value;
+
+@Value
+public class BulkUpdateResult {
+
+    public static final BulkUpdateResult EMPTY = new BulkUpdateResult(0, 0, 0);
+
+    int chunks;
+    long affectedRows;
+    long elapsedMillis;
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? affectedRows : affectedRows * 1000.0 / elapsedMillis;
+    }
+
+}
@@ -0,0 +1,204 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.dsl.NumberPath;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class ChunkedUpdateExecutor {
+
+    /**
+     * 큰 테이블 전체에 대한 bulk update/delete를 id 범위 또는 id 목록(chunkSize)으로 나눠서 실행
+     *   * chunk마다 짧은 별도 트랜잭션(REQUIRES_NEW) => row lock을 오래 잡지 않아서 조회 API가 막히지 않음
+     *   * parallelism > 1이면 여러 id 범위를 동시에 실행 (스레드마다 커넥션 하나)
+     *   * chunk마다 바로 커밋되기 때문에 중간에 실패하면 앞의 chunk들은 반영된 상태 (전체가 롤백되지 않음)
+     *   * 호출한 쪽 트랜잭션에서 같은 row를 수정해둔 상태로 호출하면 lock을 기다리다 멈춤
+     * 끝나면 호출한 쪽 영속성 컨텍스트를 비움 (@Modifying(clearAutomatically = true)와 같은 이유)
+     */
+
+    private final TransactionTemplate chunkTransaction;
+    private final EntityManager em;
+    private final int defaultChunkSize;
+    private final int defaultParallelism;
+
+    public ChunkedUpdateExecutor(PlatformTransactionManager transactionManager, EntityManager em,
+                                 @Value("${member.bulk.chunk-size:1000}") int defaultChunkSize,
+                                 @Value("${member.bulk.parallelism:1}") int defaultParallelism) {
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.em = em;
+        this.defaultChunkSize = defaultChunkSize;
+        this.defaultParallelism = defaultParallelism;
+    }
+
+    /**
+     * id 범위 [fromInclusive, toExclusive)에 대해 update를 실행하고 변경된 row 수를 반환
+     */
+    @FunctionalInterface
+    public interface RangeUpdate {
+        long execute(long fromInclusive, long toExclusive);
+    }
+
+    /**
+     * id 목록에 대해 update를 실행하고 변경된 row 수를 반환
+     */
+    @FunctionalInterface
+    public interface IdsUpdate {
+        long execute(List<Long> ids);
+    }
+
+    /**
+     * chunk 나누기(id 최솟값 ~ 최댓값 조회, 범위/목록 분할)는 BatchedWriteClause 한곳에서
+     * Querydsl4RepositorySupport를 상속받지 않은 repository도 이걸로 사용
+     */
+    public BatchedUpdateClause update(EntityPath<?> path, NumberPath<Long> idPath) {
+        return new BatchedUpdateClause(em, path, idPath, this);
+    }
+
+    public BatchedDeleteClause delete(EntityPath<?> path, NumberPath<Long> idPath) {
+        return new BatchedDeleteClause(em, path, idPath, this);
+    }
+
+    /**
+     * minId ~ maxId(포함)를 chunkSize 크기의 id 범위로 나눠서 실행 (minId, maxId가 null이면 대상 없음)
+     */
+    public BulkUpdateResult execute(String name, Long minId, Long maxId, int chunkSize, int parallelism, RangeUpdate update) {
+
+        if (minId == null || maxId == null) {
+            return BulkUpdateResult.EMPTY;
+        }
+
+        List<Supplier<Long>> chunks = new ArrayList<>();
+        for (long from = minId; from <= maxId; from += chunkSize) {
+            long fromInclusive = from;
+            long toExclusive = Math.min(from + chunkSize, maxId + 1);
+            chunks.add(() -> update.execute(fromInclusive, toExclusive));
+        }
+        return run(name, chunks, parallelism);
+    }
+
+    /**
+     * id 목록을 chunkSize개씩 나눠서 실행 (where id in (...))
+     */
+    public BulkUpdateResult executeByIds(String name, Collection<Long> ids, int chunkSize, int parallelism, IdsUpdate update) {
+
+        List<Long> idList = new ArrayList<>(ids);
+        List<Supplier<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < idList.size(); from += chunkSize) {
+            List<Long> chunk = idList.subList(from, Math.min(from + chunkSize, idList.size()));
+            chunks.add(() -> update.execute(chunk));
+        }
+        return run(name, chunks, parallelism);
+    }
+
+    public int getDefaultChunkSize() {
+        return defaultChunkSize;
+    }
+
+    public int getDefaultParallelism() {
+        return defaultParallelism;
+    }
+
+    private BulkUpdateResult run(String name, List<Supplier<Long>> chunks, int parallelism) {
+
+        if (chunks.isEmpty()) {
+            return BulkUpdateResult.EMPTY;
+        }
+
+        long startedAt = System.nanoTime();
+        AtomicLong affectedRows = new AtomicLong();
+        AtomicInteger doneChunks = new AtomicInteger();
+        int logInterval = Math.max(1, chunks.size() / 10);
+
+        Runnable[] tasks = chunks.stream()
+                .map(chunk -> (Runnable) () -> {
+                    Long rows = chunkTransaction.execute(status -> chunk.get());
+                    long affected = affectedRows.addAndGet(rows != null ? rows : 0);
+                    int done = doneChunks.incrementAndGet();
+                    if (done % logInterval == 0 || done == chunks.size()) {
+                        long elapsed = elapsedMillis(startedAt);
+                        log.info("{}: {}/{} chunks, {} rows, {} rows/s", name, done, chunks.size(), affected,
+                                elapsed == 0 ? affected : affected * 1000 / elapsed);
+                    }
+                })
+                .toArray(Runnable[]::new);
+
+        try {
+            if (parallelism <= 1 || tasks.length == 1) {
+                for (Runnable task : tasks) {
+                    task.run();
+                }
+            } else {
+                runParallel(name, tasks, Math.min(parallelism, tasks.length));
+            }
+        } finally {
+            // 이미 커밋된 chunk가 있을 수 있기 때문에 실패해도 비움
+            em.clear();
+        }
+
+        return new BulkUpdateResult(chunks.size(), affectedRows.get(), elapsedMillis(startedAt));
+    }
+
+    private void runParallel(String name, Runnable[] tasks, int threads) {
+        AtomicInteger sequence = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(tasks.length);
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(name + " interrupted", e);
+        } catch (ExecutionException e) {
+            // 하나라도 실패하면 아직 시작하지 않은 chunk는 실행하지 않음
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(name + " failed", cause);
+        } finally {
+            executor.shutdownNow();
+            awaitTermination(executor);
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long elapsedMillis(long startedAt) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    }
+
+}
@@ -0,0 +1,276 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinFlag;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.CollectionExpression;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.MapExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.Visitor;
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.JPAQueryMixin;
+import com.querydsl.jpa.impl.JPAQuery;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+final class DerivedCountQuery {
+
+    /**
+     * content query의 QueryMetadata로 가벼운 count query를 만듦 (deprecated된 fetchCount() 대체)
+     *   * order by, projection, offset/limit은 가져오지 않음
+     *   * fetch join은 일반 join으로 (count에는 fetch가 의미 없음)
+     *   * where/group by/having/다른 join 어디에서도 참조하지 않는 to-one left join은 제거 (row 수가 바뀌지 않음)
+     *   * to-many join이 남아있거나 distinct 쿼리면 count(distinct root)
+     *   * group by key 하나 => count(distinct key) (+ key가 null인 그룹이 있으면 1)
+     *   * select distinct 컬럼 하나 => 위와 같은 방식으로 count
+     *   * group by key 여러개, having, select distinct 컬럼 여러개는 JPQL count로 표현할 수 없음 (from절 subquery 불가)
+     *     => 결과를 전부 읽어서 세지 않고 IllegalArgumentException (count query를 직접 넘겨야 함)
+     */
+
+    private static final Set<JoinFlag> FETCH_FLAGS = Set.of(JPAQueryMixin.FETCH, JPAQueryMixin.FETCH_ALL_PROPERTIES);
+
+    // 파라미터로 바인딩되지 않도록 literal
+    private static final NumberExpression<Integer> ONE = Expressions.numberTemplate(Integer.class, "1");
+    private static final NumberExpression<Integer> ZERO = Expressions.numberTemplate(Integer.class, "0");
+
+    private DerivedCountQuery() {
+    }
+
+    static LongSupplier of(EntityManager em, QueryMetadata contentMetadata) {
+
+        Set<Path<?>> referenced = new HashSet<>();
+        collectRoots(contentMetadata.getWhere(), referenced);
+        contentMetadata.getGroupBy().forEach(expr -> collectRoots(expr, referenced));
+        collectRoots(contentMetadata.getHaving(), referenced);
+
+        // 뒤쪽 join부터 보면서 남길 join이 참조하는 alias를 추가 (join 체인이 끊기지 않도록)
+        List<JoinExpression> joins = contentMetadata.getJoins();
+        List<JoinExpression> keptJoins = new ArrayList<>();
+        boolean toManyJoin = false;
+        for (int i = joins.size() - 1; i >= 0; i--) {
+            JoinExpression join = joins.get(i);
+            if (isRemovable(join, referenced)) {
+                continue;
+            }
+            keptJoins.add(0, join);
+            collectRoots(joinedPath(join), referenced);
+            collectRoots(join.getCondition(), referenced);
+            toManyJoin |= join.getType() != JoinType.DEFAULT && isToMany(join);
+        }
+
+        QueryMetadata countMetadata = new DefaultQueryMetadata();
+        for (JoinExpression join : keptJoins) {
+            countMetadata.addJoin(join.getType(), join.getTarget());
+            if (join.getCondition() != null) {
+                countMetadata.addJoinCondition(join.getCondition());
+            }
+            for (JoinFlag flag : join.getFlags()) {
+                if (!FETCH_FLAGS.contains(flag)) {
+                    countMetadata.addJoinFlag(flag);
+                }
+            }
+        }
+        countMetadata.addWhere(contentMetadata.getWhere());
+        copyParams(contentMetadata, countMetadata);
+
+        JPAQuery<?> countQuery = new JPAQuery<>(em, countMetadata);
+
+        List<Expression<?>> groupBy = contentMetadata.getGroupBy();
+        if (!groupBy.isEmpty()) {
+            if (groupBy.size() > 1 || contentMetadata.getHaving() != null) {
+                throw new IllegalArgumentException(
+                        "count query cannot be derived from group by " + groupBy + " with having "
+                                + contentMetadata.getHaving() + ", pass a count query explicitly");
+            }
+            return distinctCount(countQuery, groupBy.get(0));
+        }
+
+        Expression<?> projection = contentMetadata.getProjection();
+        Expression<?> root = joinedPath(joins.get(0));
+        if (contentMetadata.isDistinct() && projection != null && !projection.equals(root)) {
+            Expression<?> column = singleColumn(projection);
+            if (column == null) {
+                throw new IllegalArgumentException(
+                        "count query cannot be derived from select distinct " + projection
+                                + ", pass a count query explicitly");
+            }
+            return distinctCount(countQuery, column);
+        }
+
+        Ops.AggOps countOp = toManyJoin || contentMetadata.isDistinct() ? Ops.AggOps.COUNT_DISTINCT_AGG : Ops.AggOps.COUNT_AGG;
+        JPAQuery<Long> rootCountQuery = countQuery.select(Expressions.numberOperation(Long.class, countOp, root));
+        return () -> {
+            Long count = rootCountQuery.fetchOne();
+            return count != null ? count : 0L;
+        };
+    }
+
+    /**
+     * count(distinct key)는 null을 세지 않지만 group by / select distinct에서는 null도 row 하나
+     */
+    private static LongSupplier distinctCount(JPAQuery<?> countQuery, Expression<?> key) {
+        NumberExpression<Long> distinctKeys = Expressions.numberOperation(Long.class, Ops.AggOps.COUNT_DISTINCT_AGG, key);
+        NumberExpression<Integer> nullKey = new CaseBuilder()
+                .when(Expressions.booleanOperation(Ops.IS_NULL, key)).then(ONE)
+                .otherwise(ZERO)
+                .max();
+        JPAQuery<Tuple> query = countQuery.select(distinctKeys, nullKey);
+        return () -> {
+            Tuple row = query.fetchOne();
+            if (row == null) {
+                return 0L;
+            }
+            Long keys = row.get(distinctKeys);
+            Integer hasNull = row.get(nullKey);
+            return (keys != null ? keys : 0L) + (hasNull != null ? hasNull : 0);
+        };
+    }
+
+    /**
+     * select distinct member.username, select distinct new Dto(member.username) => member.username
+     * 컬럼이 여러개면 null
+     */
+    private static Expression<?> singleColumn(Expression<?> projection) {
+        Expression<?> column = projection;
+        if (column instanceof FactoryExpression) {
+            List<Expression<?>> args = ((FactoryExpression<?>) column).getArgs();
+            if (args.size() != 1) {
+                return null;
+            }
+            column = args.get(0);
+        }
+        if (column instanceof Operation && ((Operation<?>) column).getOperator() == Ops.ALIAS) {
+            column = ((Operation<?>) column).getArg(0);
+        }
+        return column;
+    }
+
+    private static boolean isRemovable(JoinExpression join, Set<Path<?>> referenced) {
+        if (join.getType() != JoinType.LEFTJOIN || isToMany(join)) {
+            return false;
+        }
+        Expression<?> joinedPath = joinedPath(join);
+        // 연관관계가 아닌 엔티티와의 join(theta join)은 몇 건이 붙을지 알 수 없음
+        if (!(joinedPath instanceof Path) || ((Path<?>) joinedPath).getMetadata().getParent() == null) {
+            return false;
+        }
+        return !referenced.contains(alias(join));
+    }
+
+    private static boolean isToMany(JoinExpression join) {
+        Expression<?> joinedPath = joinedPath(join);
+        return joinedPath instanceof CollectionExpression || joinedPath instanceof MapExpression;
+    }
+
+    /**
+     * leftJoin(member.team, team) => target: member.team as team
+     */
+    private static Expression<?> joinedPath(JoinExpression join) {
+        Expression<?> target = join.getTarget();
+        if (target instanceof Operation && ((Operation<?>) target).getOperator() == Ops.ALIAS) {
+            return ((Operation<?>) target).getArg(0);
+        }
+        return target;
+    }
+
+    private static Expression<?> alias(JoinExpression join) {
+        Expression<?> target = join.getTarget();
+        if (target instanceof Operation && ((Operation<?>) target).getOperator() == Ops.ALIAS) {
+            return ((Operation<?>) target).getArg(1);
+        }
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void copyParams(QueryMetadata from, QueryMetadata to) {
+        for (Map.Entry<ParamExpression<?>, Object> param : from.getParams().entrySet()) {
+            to.setParam((ParamExpression<Object>) param.getKey(), param.getValue());
+        }
+    }
+
+    private static void collectRoots(Expression<?> expr, Set<Path<?>> roots) {
+        if (expr != null) {
+            expr.accept(PathRootCollector.INSTANCE, roots);
+        }
+    }
+
+    /**
+     * 식 안에서 사용하는 path들의 root(= from/join alias)를 모음
+     */
+    private static final class PathRootCollector implements Visitor<Void, Set<Path<?>>> {
+
+        private static final PathRootCollector INSTANCE = new PathRootCollector();
+
+        @Override
+        public Void visit(Constant<?> expr, Set<Path<?>> roots) {
+            return null;
+        }
+
+        @Override
+        public Void visit(FactoryExpression<?> expr, Set<Path<?>> roots) {
+            expr.getArgs().forEach(arg -> collectRoots(arg, roots));
+            return null;
+        }
+
+        @Override
+        public Void visit(Operation<?> expr, Set<Path<?>> roots) {
+            expr.getArgs().forEach(arg -> collectRoots(arg, roots));
+            return null;
+        }
+
+        @Override
+        public Void visit(ParamExpression<?> expr, Set<Path<?>> roots) {
+            return null;
+        }
+
+        @Override
+        public Void visit(Path<?> expr, Set<Path<?>> roots) {
+            roots.add(expr.getRoot());
+            return null;
+        }
+
+        @Override
+        public Void visit(SubQueryExpression<?> expr, Set<Path<?>> roots) {
+            QueryMetadata metadata = expr.getMetadata();
+            for (JoinExpression join : metadata.getJoins()) {
+                collectRoots(join.getTarget(), roots);
+                collectRoots(join.getCondition(), roots);
+            }
+            collectRoots(metadata.getProjection(), roots);
+            collectRoots(metadata.getWhere(), roots);
+            metadata.getGroupBy().forEach(groupBy -> collectRoots(groupBy, roots));
+            collectRoots(metadata.getHaving(), roots);
+            return null;
+        }
+
+        @Override
+        public Void visit(TemplateExpression<?> expr, Set<Path<?>> roots) {
+            for (Object arg : expr.getArgs()) {
+                if (arg instanceof Expression) {
+                    collectRoots((Expression<?>) arg, roots);
+                }
+            }
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package study.querydsl.repository.support;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Component
+public class MemberBatchLoader {
+
+    /**
+     * 여러 id로 Member 조회 (MemberJpaRepository.findAllById)
+     *   * 호출한 쪽 세션의 영속성 컨텍스트에 이미 로딩된 id는 DB에 가지 않음
+     *   * 없는 id만 max-batch-size개씩 where id in (...)으로 조회 (hibernate multiLoad batch fetch)
+     *   * 호출한 트랜잭션의 커넥션에서 바로 조회
+     * 캐시가 아님 => 요청 사이에 결과를 보관하지 않고, 다른 요청의 같은 id 조회를 합치지도 않음
+     *   * 처음 요청은 크기 제한 + 동시 조회 합치기가 있는 near-cache였지만
+     *     Member는 변경이 많고 다른 트랜잭션에서 읽은 엔티티를 넘겨줄 수 없어서 batch 조회로 범위를 줄임
+     * 트랜잭션 안에서 호출 (트랜잭션 밖이면 호출마다 새 영속성 컨텍스트)
+     */
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final int maxBatchSize;
+
+    private final AtomicLong requestedIds = new AtomicLong();
+    private final AtomicLong alreadyLoaded = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedIds = new AtomicLong();
+
+    public MemberBatchLoader(@Value("${member.batch-loader.max-batch-size:100}") int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * 결과는 ids 순서, 없는 id는 제외
+     */
+    public List<Member> findAll(Collection<Long> ids) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+
+        int distinct = 0;
+        int missing = 0;
+        for (Long id : new LinkedHashSet<>(ids)) {
+            distinct++;
+            if (!isLoaded(session, id)) {
+                missing++;
+            }
+        }
+        requestedIds.addAndGet(distinct);
+        alreadyLoaded.addAndGet(distinct - missing);
+        batches.addAndGet((missing + maxBatchSize - 1) / maxBatchSize);
+        batchedIds.addAndGet(missing);
+
+        return session.byMultipleIds(Member.class)
+                .enableSessionCheck(true)
+                .withBatchSize(maxBatchSize)
+                .multiLoad(new ArrayList<>(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    public Map<String, Object> stats() {
+        long batchCount = batches.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requestedIds", requestedIds.get());
+        stats.put("alreadyLoaded", alreadyLoaded.get());
+        stats.put("batches", batchCount);
+        stats.put("batchedIds", batchedIds.get());
+        stats.put("averageBatchSize", batchCount == 0 ? 0.0 : (double) batchedIds.get() / batchCount);
+        return stats;
+    }
+
+    private static boolean isLoaded(SessionImplementor session, Long id) {
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Member.class);
+        return session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister)) != null;
+    }
+
+}
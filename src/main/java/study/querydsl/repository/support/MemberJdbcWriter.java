@@ -0,0 +1,53 @@
+package study.querydsl.repository.support;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.function.LongSupplier;
+
+@Component
+public class MemberJdbcWriter {
+
+    /**
+     * JPA를 거치지 않는 member/team JDBC batch insert의 SQL과 id 할당 (MemberImportService, BenchDataGenerator)
+     *   * id는 엔티티와 같은 sequence에서 pooled-lo로 할당 => 이후에 애플리케이션에서 persist해도 겹치지 않음
+     *   * MEMBER_INSERT 파라미터 순서: member_id, username, age, team_id, created_by, last_modified_by,
+     *     created_date, last_modified_date (auditing listener를 거치지 않기 때문에 직접 채움)
+     */
+
+    public static final String MEMBER_INSERT = "insert into member" +
+            " (member_id, username, age, team_id, created_by, last_modified_by, created_date, last_modified_date)" +
+            " values (?, ?, ?, ?, ?, ?, ?, ?)";
+    public static final String TEAM_INSERT = "insert into team (id, name) values (?, ?)";
+
+    // Member, Team @GenericGenerator의 increment_size와 같아야 함
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    private final String memberSequenceQuery;
+    private final String teamSequenceQuery;
+
+    public MemberJdbcWriter(EntityManagerFactory emf) {
+        // EntityManagerFactory를 받기 때문에 스키마(ddl-auto)가 만들어진 뒤에 사용됨
+        Dialect dialect = emf.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        this.memberSequenceQuery = dialect.getSequenceNextValString("member_seq");
+        this.teamSequenceQuery = dialect.getSequenceNextValString("team_seq");
+    }
+
+    public String getMemberSequenceQuery() {
+        return memberSequenceQuery;
+    }
+
+    public String getTeamSequenceQuery() {
+        return teamSequenceQuery;
+    }
+
+    /**
+     * sequence 조회(sequence) 한번에 id ID_ALLOCATION_SIZE개
+     */
+    public static PooledLoIdAllocator idAllocator(LongSupplier sequence) {
+        return new PooledLoIdAllocator(ID_ALLOCATION_SIZE, sequence);
+    }
+
+}
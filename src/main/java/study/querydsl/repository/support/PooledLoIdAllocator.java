@@ -0,0 +1,32 @@
+package study.querydsl.repository.support;
+
+import java.util.function.LongSupplier;
+
+/**
+ * JDBC로 직접 insert할 때 엔티티의 @GenericGenerator(pooled-lo)와 같은 방식으로 id 할당
+ *   * sequence 값 v를 받으면 v ~ v + allocationSize - 1을 메모리에서 사용
+ *   * allocationSize는 sequence의 increment(엔티티의 increment_size)와 같아야 hibernate가 할당한 id와 겹치지 않음
+ * 스레드 하나에서만 사용 (여러 스레드면 스레드마다 하나씩)
+ */
+public class PooledLoIdAllocator {
+
+    private final int allocationSize;
+    private final LongSupplier sequence;
+
+    private long next;
+    private long end;
+
+    public PooledLoIdAllocator(int allocationSize, LongSupplier sequence) {
+        this.allocationSize = allocationSize;
+        this.sequence = sequence;
+    }
+
+    public long next() {
+        if (next == end) {
+            next = sequence.getAsLong();
+            end = next + allocationSize;
+        }
+        return next++;
+    }
+
+}
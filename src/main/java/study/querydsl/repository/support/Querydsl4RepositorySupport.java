@@ -2,9 +2,12 @@ package study.querydsl.repository.support;
 
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.impl.JPADeleteClause;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -20,14 +23,16 @@ import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 @Repository
-public class Querydsl4RepositorySupport {
+public abstract class Querydsl4RepositorySupport {
 
     private final Class domainClass;
     private Querydsl querydsl;
     private EntityManager entityManager;
     private JPAQueryFactory queryFactory;
+    private ChunkedUpdateExecutor chunkedUpdateExecutor;
 
     public Querydsl4RepositorySupport(Class<?> domainClass) {
         Assert.notNull(domainClass, "Domain class must not be null!");
@@ -47,11 +52,17 @@ public class Querydsl4RepositorySupport {
         this.queryFactory = new JPAQueryFactory(entityManager);
     }
 
+    @Autowired
+    public void setChunkedUpdateExecutor(ChunkedUpdateExecutor chunkedUpdateExecutor) {
+        this.chunkedUpdateExecutor = chunkedUpdateExecutor;
+    }
+
     @PostConstruct
     public void validate() {
         Assert.notNull(entityManager, "EntityManager must not be null!");
         Assert.notNull(querydsl, "Querydsl must not be null!");
         Assert.notNull(queryFactory, "QueryFactory must not be null!");
+        Assert.notNull(chunkedUpdateExecutor, "ChunkedUpdateExecutor must not be null!");
     }
 
     protected JPAQueryFactory getQueryFactory() {
@@ -74,13 +85,37 @@ public class Querydsl4RepositorySupport {
         return getQueryFactory().selectFrom(from);
     }
 
+    protected JPAUpdateClause update(EntityPath<?> path) {
+        return getQueryFactory().update(path);
+    }
+
+    protected JPADeleteClause delete(EntityPath<?> path) {
+        return getQueryFactory().delete(path);
+    }
+
+    /**
+     * 대량 update를 id 범위(execute) 또는 id 목록(executeByIds) 단위로 나눠서 chunk마다 커밋
+     * 호출한 쪽 트랜잭션과 별개로 커밋되기 때문에 롤백되지 않음
+     */
+    protected BatchedUpdateClause batchedUpdate(EntityPath<?> path, NumberPath<Long> idPath) {
+        return chunkedUpdateExecutor.update(path, idPath);
+    }
+
+    protected BatchedDeleteClause batchedDelete(EntityPath<?> path, NumberPath<Long> idPath) {
+        return chunkedUpdateExecutor.delete(path, idPath);
+    }
+
+    /**
+     * count query는 content query에서 만들어냄 (DerivedCountQuery)
+     * pagination이 content query의 metadata에 order by, offset/limit을 추가하기 전에 만들어둬야 함
+     */
     protected <T> Page<T> applyPagination(Pageable pageable,
                                           Function<JPAQueryFactory, JPAQuery> contentQuery) {
         JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
+        LongSupplier totalCount = DerivedCountQuery.of(getEntityManager(), jpaQuery.getMetadata());
         List<T> content = getQuerydsl().applyPagination(pageable,
                 jpaQuery).fetch();
-        return PageableExecutionUtils.getPage(content, pageable,
-                jpaQuery::fetchCount);
+        return PageableExecutionUtils.getPage(content, pageable, totalCount);
     }
 
     protected <T> Page<T> applyPagination(Pageable pageable,
@@ -0,0 +1,122 @@
+package study.querydsl.repository.support;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Component
+public class ReadOnlyQueryExecutor implements DisposableBean {
+
+    /**
+     * 조회 쿼리를 별도 스레드의 읽기 전용 트랜잭션(= 별도 커넥션)에서 실행
+     * 호출한 쪽 트랜잭션과는 다른 커넥션이기 때문에 아직 커밋되지 않은 데이터는 보이지 않음
+     *
+     * 커넥션 풀 고갈 방지
+     *   * 스레드 수(pool-size)를 커넥션 풀 크기보다 작게 고정
+     *   * 대기 큐(queue-capacity)가 가득 차면 비동기로 받지 않고 호출한 쪽에서 동기로 실행
+     *   * 트랜잭션 timeout(timeout-ms를 초 단위로 올림) => 안에서 만드는 query에 query timeout이 걸려서
+     *     느린 쿼리는 DB에서 중단되고 커넥션을 돌려줌 (스레드 interrupt로는 실행중인 JDBC statement가 멈추지 않음)
+     *   * 결과를 timeout-ms 이상 기다리지 않음 (넘으면 취소하고 QueryTimeoutException, 같은 쿼리를 다시 실행하지 않음)
+     *   * 미리 조회(prefetch) 같은 백그라운드 작업은 놀고 있는 스레드가 있을 때만 받음 (큐를 차지하지 않음)
+     */
+
+    private final int poolSize;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ReadOnlyQueryExecutor(PlatformTransactionManager transactionManager,
+                                 @Value("${member.search.async.pool-size:4}") int poolSize,
+                                 @Value("${member.search.async.queue-capacity:16}") int queueCapacity,
+                                 @Value("${member.search.async.timeout-ms:3000}") long timeoutMillis) {
+        this.poolSize = poolSize;
+        this.timeoutMillis = timeoutMillis;
+
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, (timeoutMillis + 999) / 1000));
+    }
+
+    /**
+     * 큐가 가득 차서 받아줄 수 없으면 empty => 호출한 쪽에서 동기로 실행하면 됨
+     */
+    public <T> Optional<Future<T>> submit(Supplier<T> query) {
+        try {
+            return Optional.of(executor.submit(() -> readOnlyTransaction.execute(status -> query.get())));
+        } catch (RejectedExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 당장 실행할 스레드가 없으면 받지 않음 => 급하지 않은 작업용
+     */
+    public <T> Optional<Future<T>> submitIfIdle(Supplier<T> query) {
+        if (executor.getActiveCount() >= poolSize || !executor.getQueue().isEmpty()) {
+            return Optional.empty();
+        }
+        return submit(query);
+    }
+
+    /**
+     * timeout 안에 끝나지 않으면 비동기 작업은 취소하고 QueryTimeoutException
+     * (느린 쿼리를 호출한 스레드에서 다시 실행하면 DB 부하만 두배가 됨)
+     */
+    public <T> T join(Future<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new QueryTimeoutException("query did not finish within " + timeoutMillis + "ms", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for query result", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "read-only-query-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
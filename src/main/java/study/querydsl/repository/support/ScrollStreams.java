@@ -0,0 +1,41 @@
+package study.querydsl.repository.support;
+
+import org.hibernate.ScrollableResults;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public final class ScrollStreams {
+
+    /**
+     * ScrollableResults(열려있는 JDBC ResultSet)를 한 row씩 읽는 Stream으로 감쌈
+     * Stream을 close하면 ResultSet도 close => try-with-resources로 사용
+     * 커넥션을 잡고 있기 때문에 트랜잭션 안에서 사용
+     */
+
+    private ScrollStreams() {
+    }
+
+    public static <T> Stream<T> of(ScrollableResults results, Function<Object[], T> mapper) {
+
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (!results.next()) {
+                    return false;
+                }
+                action.accept(mapper.apply(results.get()));
+                return true;
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false)
+                .onClose(results::close);
+    }
+
+}
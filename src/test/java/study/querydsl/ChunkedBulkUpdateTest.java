@@ -0,0 +1,92 @@
+package study.querydsl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberTestRepository;
+import study.querydsl.repository.support.BulkUpdateResult;
+import study.querydsl.support.CommittedDataTestSupport;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * chunk마다 별도 트랜잭션으로 커밋하기 때문에 @Transactional 테스트로는 확인할 수 없음
+ * => 데이터를 커밋하고 끝나면 지움 (CommittedDataTestSupport)
+ */
+@SpringBootTest(properties = {"member.bulk.chunk-size=2", "member.bulk.parallelism=2"})
+class ChunkedBulkUpdateTest extends CommittedDataTestSupport {
+
+    @Autowired
+    TestMemberRepository testMemberRepository;
+
+    @Autowired
+    TestMemberJpaRepository testMemberJpaRepository;
+
+    @Autowired
+    MemberTestRepository memberTestRepository;
+
+    @BeforeEach
+    public void before() {
+        transaction.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            for (int i = 1; i <= 5; i++) {
+                em.persist(new Member("member" + i, i * 10, teamA));
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("member_id 범위별로 나눠서 bulk update")
+    public void bulkAgePlusChunked() {
+
+        BulkUpdateResult result = testMemberRepository.bulkAgePlusChunked(20);
+
+        // 대상 3명의 id 범위를 chunk-size 2로 나눔
+        assertThat(result.getAffectedRows()).isEqualTo(3);
+        assertThat(result.getChunks()).isEqualTo(2);
+        assertThat(ages()).containsExactly(10, 20, 31, 41, 51);
+    }
+
+    @Test
+    @DisplayName("TestMemberJpaRepository bulk update chunk 실행")
+    public void bulkUpdateByAgeChunked() {
+
+        BulkUpdateResult result = testMemberJpaRepository.bulkUpdateByAgeChunked(30);
+
+        assertThat(result.getAffectedRows()).isEqualTo(2);
+        assertThat(ages()).containsExactly(10, 20, 30, 41, 51);
+    }
+
+    @Test
+    @DisplayName("Querydsl4RepositorySupport batchedUpdate / batchedDelete")
+    public void batchedUpdateAndDelete() {
+
+        BulkUpdateResult updated = memberTestRepository.bulkAgePlus(20);
+
+        assertThat(updated.getAffectedRows()).isEqualTo(3);
+        assertThat(ages()).containsExactly(10, 20, 31, 41, 51);
+
+        List<Long> ids = transaction.execute(status -> em.createQuery(
+                        "select m.id from Member m where m.age > 40", Long.class)
+                .getResultList());
+
+        BulkUpdateResult deleted = memberTestRepository.deleteByIds(ids);
+
+        assertThat(deleted.getAffectedRows()).isEqualTo(2);
+        assertThat(ages()).containsExactly(10, 20, 31);
+    }
+
+    private List<Integer> ages() {
+        return transaction.execute(status -> em.createQuery(
+                        "select m.age from Member m order by m.id", Integer.class)
+                .getResultList());
+    }
+
+}
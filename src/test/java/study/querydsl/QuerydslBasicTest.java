@@ -10,7 +10,6 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.annotation.Commit;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.QMember;
@@ -67,10 +66,10 @@ public class QuerydslBasicTest {
 
         Member findMember = em.createQuery(
                         "select m from Member m where m.username = :username", Member.class)
-                .setParameter("username", "memberA")
+                .setParameter("username", "member1")
                 .getSingleResult();
 
-        assertThat(findMember.getUsername()).isEqualTo("memberA");
+        assertThat(findMember.getUsername()).isEqualTo("member1");
 
     }
 
@@ -94,10 +93,10 @@ public class QuerydslBasicTest {
         Member findMember = queryFactory
                 .select(m)
                 .from(m)
-                .where(m.username.eq("memberA"))
+                .where(m.username.eq("member1"))
                 .fetchOne();
 
-        assertThat(findMember.getUsername()).isEqualTo("memberA");
+        assertThat(findMember.getUsername()).isEqualTo("member1");
 
     }
 
@@ -110,10 +109,10 @@ public class QuerydslBasicTest {
         Member findMember = queryFactory
                 .select(member)
                 .from(member)
-                .where(member.username.eq("memberA"))
+                .where(member.username.eq("member1"))
                 .fetchOne();
 
-        assertThat(findMember.getUsername()).isEqualTo("memberA");
+        assertThat(findMember.getUsername()).isEqualTo("member1");
 
     }
 
@@ -126,11 +125,11 @@ public class QuerydslBasicTest {
 
         Member findMember = queryFactory
                 .selectFrom(member)
-                .where(member.username.eq("memberA")
+                .where(member.username.eq("member1")
                         .and(member.age.eq(10)))
                 .fetchOne();
 
-        assertThat(findMember.getUsername()).isEqualTo("memberA");
+        assertThat(findMember.getUsername()).isEqualTo("member1");
 
     }
 
@@ -145,11 +144,11 @@ public class QuerydslBasicTest {
         Member findMember = queryFactory
                 .selectFrom(member)
                 .where(
-                        member.username.eq("memberA"),
+                        member.username.eq("member1"),
                         (member.age.eq(10)))
                 .fetchOne();
 
-        assertThat(findMember.getUsername()).isEqualTo("memberA");
+        assertThat(findMember.getUsername()).isEqualTo("member1");
 
     }
 
@@ -162,9 +161,10 @@ public class QuerydslBasicTest {
                 .selectFrom(member)
                 .fetch();
 
-        // 단건 조회 : fetchOne()
+        // 단건 조회 : fetchOne() => 결과가 둘 이상이면 NonUniqueResultException
         Member member = queryFactory
                 .selectFrom(QMember.member)
+                .where(QMember.member.username.eq("member1"))
                 .fetchOne();
 
         // 맨앞 정보 조회 : fetchFirst()
@@ -320,7 +320,6 @@ public class QuerydslBasicTest {
      */
     @Test
     @DisplayName("세타 조인")
-    @Commit
     public void theta_join() {
 
         em.persist(new Member("teamA"));
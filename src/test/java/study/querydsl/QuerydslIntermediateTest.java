@@ -312,6 +312,9 @@ public class QuerydslIntermediateTest {
     void theta_join() throws Exception {
 
         //given
+        em.persist(new Member("teamA"));
+        em.persist(new Member("teamB"));
+        em.persist(new Member("teamC"));
         em.flush();
         em.clear();
 
@@ -77,13 +77,14 @@ public class TestJPA {
 
         List<Member> result = testMemberRepository.findAll();
 
-        assertThat(result.size()).isEqualTo(4);
+        // init()의 5명 + memberA
+        assertThat(result.size()).isEqualTo(6);
 
         testMemberRepository.delete(member);
 
         long count = testMemberRepository.count();
 
-        assertThat(count).isEqualTo(3);
+        assertThat(count).isEqualTo(5);
 
     }
 
@@ -130,19 +131,7 @@ public class TestJPA {
     @Test
     void contextLoads() {
 
-        Team teamA = new Team("teamA");
-        Team teamB = new Team("teamB");
-        em.persist(teamA);
-        em.persist(teamB);
-        Member member1 = new Member("member1", 10, teamA);
-        Member member2 = new Member("member2", 20, teamA);
-        Member member3 = new Member("member3", 30, teamB);
-        Member member4 = new Member("member4", 40, teamB);
-        em.persist(member1);
-        em.persist(member2);
-        em.persist(member3);
-        em.persist(member4);
-
+        // init()의 회원 5명 (10 ~ 50살)
         em.flush();
         em.clear();
 
@@ -157,11 +146,11 @@ public class TestJPA {
 
         Tuple tuple = result.get(0);
 
-        assertThat(tuple.get(member.age.count())).isEqualTo(4);
+        assertThat(tuple.get(member.age.count())).isEqualTo(5);
         assertThat(tuple.get(member.age.min())).isEqualTo(10);
-        assertThat(tuple.get(member.age.max())).isEqualTo(40);
-        assertThat(tuple.get(member.age.avg())).isEqualTo(25);
-        assertThat(tuple.get(member.age.sum())).isEqualTo(100);
+        assertThat(tuple.get(member.age.max())).isEqualTo(50);
+        assertThat(tuple.get(member.age.avg())).isEqualTo(30);
+        assertThat(tuple.get(member.age.sum())).isEqualTo(150);
 
     }
 
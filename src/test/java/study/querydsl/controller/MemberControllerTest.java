@@ -0,0 +1,78 @@
+package study.querydsl.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "member.search.unfiltered-limit=2")
+@AutoConfigureMockMvc
+@Transactional
+class MemberControllerTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamA));
+        em.persist(new Member("member4", 40, teamB));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("/v1 teamName 조건이어도 unfiltered-limit개까지만 반환하고 잘렸다고 알려줌")
+    public void v1LimitWithTeamName() throws Exception {
+        mockMvc.perform(get("/v1/members").param("teamName", "teamA"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Result-Truncated", "true"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].username").value("member1"));
+    }
+
+    @Test
+    @DisplayName("/v1 결과가 unfiltered-limit개 이하면 헤더 없음")
+    public void v1NotTruncated() throws Exception {
+        mockMvc.perform(get("/v1/members").param("teamName", "teamB"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Result-Truncated"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("/v5 size는 1 이상으로 제한")
+    public void v5SizeClamp() throws Exception {
+        mockMvc.perform(get("/v5/members").param("size", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(get("/v5/members").param("size", "2000000000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)));
+    }
+
+}
@@ -0,0 +1,153 @@
+package study.querydsl.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.export.ExportJob;
+import study.querydsl.export.MemberExportService;
+import study.querydsl.repository.MemberRepository;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 작업 상태별 응답 확인 => repository를 mock으로 바꾼 MemberExportService로 controller만 띄움
+ * (CSV 내용, gzip은 MemberExportServiceTest)
+ */
+@SpringBootTest
+class MemberExportControllerTest {
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path dir;
+
+    MemberRepository memberRepository = mock(MemberRepository.class);
+
+    MemberExportService exportService;
+
+    MockMvc mockMvc;
+
+    CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void before() {
+        exportService = new MemberExportService(memberRepository, transactionManager, dir.toString(), 1, 1, Duration.ofHours(1));
+        mockMvc = MockMvcBuilders.standaloneSetup(new MemberExportController(exportService)).build();
+    }
+
+    @AfterEach
+    public void shutdown() {
+        release.countDown();
+        exportService.destroy();
+    }
+
+    @Test
+    @DisplayName("POST /exports => 202 + Location, 완료되면 GET /exports/{id} => CSV 파일")
+    public void startAndDownload() throws Exception {
+
+        given(memberRepository.streamSearch(any()))
+                .willReturn(Stream.of(new MemberTeamDto(1L, "member1", 10, 2L, "teamA")));
+
+        String body = mockMvc.perform(post("/exports"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, containsString("/exports/")))
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(body, "$.id");
+
+        awaitFinished(id);
+
+        mockMvc.perform(get("/exports/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, endsWith("members-" + id + ".csv\"")))
+                .andExpect(content().string("memberId,username,age,teamId,teamName\n1,member1,10,2,teamA\n"));
+    }
+
+    @Test
+    @DisplayName("아직 실행중이면 202 + 작업 상태")
+    public void running() throws Exception {
+
+        given(memberRepository.streamSearch(any())).willAnswer(invocation -> {
+            release.await();
+            return Stream.empty();
+        });
+        ExportJob job = exportService.start(new MemberSearchCondition(), false);
+
+        mockMvc.perform(get("/exports/{id}", job.getId()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+    }
+
+    @Test
+    @DisplayName("실패했으면 500 + 작업 상태")
+    public void failed() throws Exception {
+
+        given(memberRepository.streamSearch(any())).willThrow(new IllegalStateException("db down"));
+        ExportJob job = exportService.start(new MemberSearchCondition(), false);
+
+        awaitFinished(job.getId());
+
+        mockMvc.perform(get("/exports/{id}", job.getId()))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.error").value("db down"));
+    }
+
+    @Test
+    @DisplayName("없는 작업이면 404")
+    public void notFound() throws Exception {
+        mockMvc.perform(get("/exports/{id}", "unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("실행중 + 대기 큐가 가득 차면 503")
+    public void rejectWhenFull() throws Exception {
+
+        given(memberRepository.streamSearch(any())).willAnswer(invocation -> {
+            release.await();
+            return Stream.empty();
+        });
+        exportService.start(new MemberSearchCondition(), false);
+        exportService.start(new MemberSearchCondition(), false);
+
+        mockMvc.perform(post("/exports"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    private void awaitFinished(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (exportService.find(id).orElseThrow().getStatus() == ExportJob.Status.RUNNING
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+package study.querydsl.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.CommittedDataTestSupport;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SSE는 별도 스레드의 트랜잭션(= 별도 커넥션)에서 읽음 => 커밋된 데이터만 보임
+ */
+@SpringBootTest(properties = "member.search.stream.max-streams=1")
+@AutoConfigureMockMvc
+class MemberStreamControllerTest extends CommittedDataTestSupport {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MemberStreamController memberStreamController;
+
+    @BeforeEach
+    public void before() {
+        transaction.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            em.persist(new Member("member1", 10, teamA));
+            em.persist(new Member("member2", 20, teamA));
+            em.persist(new Member("member3", 30, teamA));
+        });
+    }
+
+    @Test
+    @DisplayName("NDJSON stream이 max-streams개 열려 있으면 503, 다 읽으면 다시 열 수 있음")
+    public void ndjsonStreamLimit() throws Exception {
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        StreamingResponseBody first = memberStreamController.streamMembers(condition).getBody();
+
+        assertThatThrownBy(() -> memberStreamController.streamMembers(condition))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting("status").isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        first.writeTo(out);
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).hasSize(3);
+
+        StreamingResponseBody next = memberStreamController.streamMembers(condition).getBody();
+        next.writeTo(new ByteArrayOutputStream());
+    }
+
+    @Test
+    @DisplayName("SSE - batchSize개씩 members 이벤트, 마지막에 전체 개수를 담은 end 이벤트")
+    public void sseBatches() throws Exception {
+
+        List<String> events = sse("2");
+
+        assertThat(events).hasSize(3);
+        assertThat(events.get(0)).startsWith("event:members\ndata:[")
+                .contains("\"username\":\"member1\"", "\"username\":\"member2\"");
+        assertThat(events.get(1)).startsWith("event:members\ndata:[")
+                .contains("\"username\":\"member3\"");
+        assertThat(events.get(2)).isEqualTo("event:end\ndata:3");
+    }
+
+    @Test
+    @DisplayName("SSE - batchSize가 1보다 작으면 1")
+    public void sseBatchSizeClamp() throws Exception {
+
+        List<String> events = sse("0");
+
+        assertThat(events).hasSize(4);
+        assertThat(events.subList(0, 3)).allSatisfy(event -> assertThat(event)
+                .startsWith("event:members\ndata:[")
+                .containsOnlyOnce("\"username\""));
+        assertThat(events.get(3)).isEqualTo("event:end\ndata:3");
+    }
+
+    @Test
+    @DisplayName("SSE - stream이 max-streams개 열려 있으면 503")
+    public void sseStreamLimit() throws Exception {
+
+        StreamingResponseBody open = memberStreamController.streamMembers(new MemberSearchCondition()).getBody();
+
+        mockMvc.perform(get("/members/sse"))
+                .andExpect(status().isServiceUnavailable());
+
+        open.writeTo(new ByteArrayOutputStream());
+        assertThat(sse("100")).hasSize(2);
+    }
+
+    /**
+     * emitter가 complete될 때까지 기다렸다가 응답을 이벤트 단위로 나눔
+     */
+    private List<String> sse(String batchSize) throws Exception {
+        MvcResult result = mockMvc.perform(get("/members/sse").param("batchSize", batchSize))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5000);
+
+        return List.of(result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n\n"));
+    }
+
+}
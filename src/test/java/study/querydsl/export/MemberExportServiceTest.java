@@ -0,0 +1,184 @@
+package study.querydsl.export;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.support.CommittedDataTestSupport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * export는 별도 스레드, 별도 트랜잭션(= 별도 커넥션)에서 실행 => 커밋된 데이터만 보임
+ * 작업 수 제한, 실패는 streamSearch를 막거나 실패시키는 mock repository로 확인
+ */
+@SpringBootTest
+class MemberExportServiceTest extends CommittedDataTestSupport {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path dir;
+
+    MemberExportService exportService;
+
+    CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    public void shutdown() {
+        release.countDown();
+        if (exportService != null) {
+            exportService.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("CSV export - , \" 줄바꿈이 들어있는 값은 \"로 감싸고 \"는 \"\"로, 다 쓴 다음 임시 파일 이름을 바꿈")
+    public void exportCsv() throws Exception {
+
+        List<Long> ids = persistMembers();
+        exportService = exportService(memberRepository);
+
+        ExportJob job = exportService.start(new MemberSearchCondition(), false);
+        awaitFinished(job);
+
+        assertThat(job.getStatus()).isEqualTo(ExportJob.Status.DONE);
+        assertThat(job.getRows()).isEqualTo(3);
+        assertThat(job.getFileName()).isEqualTo("members-" + job.getId() + ".csv");
+        assertThat(filesInDir()).containsExactly(job.getFile());
+        assertThat(new String(Files.readAllBytes(job.getFile()), StandardCharsets.UTF_8)).isEqualTo(expectedCsv(ids));
+    }
+
+    @Test
+    @DisplayName("gzip=true면 같은 CSV를 gzip으로 압축")
+    public void exportGzip() throws Exception {
+
+        List<Long> ids = persistMembers();
+        exportService = exportService(memberRepository);
+
+        ExportJob job = exportService.start(new MemberSearchCondition(), true);
+        awaitFinished(job);
+
+        assertThat(job.getStatus()).isEqualTo(ExportJob.Status.DONE);
+        assertThat(job.getFileName()).isEqualTo("members-" + job.getId() + ".csv.gz");
+        assertThat(filesInDir()).containsExactly(job.getFile());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(job.getFile()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(expectedCsv(ids));
+        }
+    }
+
+    @Test
+    @DisplayName("실행중 + 대기 큐가 가득 차면 ExportRejectedException")
+    public void rejectWhenFull() throws Exception {
+
+        exportService = exportService(blockingRepository());
+
+        ExportJob running = exportService.start(new MemberSearchCondition(), false);
+        ExportJob queued = exportService.start(new MemberSearchCondition(), false);
+
+        assertThatThrownBy(() -> exportService.start(new MemberSearchCondition(), false))
+                .isInstanceOf(ExportRejectedException.class);
+        assertThat(running.getStatus()).isEqualTo(ExportJob.Status.RUNNING);
+
+        release.countDown();
+        awaitFinished(running);
+        awaitFinished(queued);
+        assertThat(running.getStatus()).isEqualTo(ExportJob.Status.DONE);
+        assertThat(queued.getStatus()).isEqualTo(ExportJob.Status.DONE);
+    }
+
+    @Test
+    @DisplayName("조회가 실패하면 FAILED, 임시 파일은 지움")
+    public void failed() throws Exception {
+
+        MemberRepository failingRepository = mock(MemberRepository.class);
+        given(failingRepository.streamSearch(any())).willThrow(new IllegalStateException("db down"));
+        exportService = exportService(failingRepository);
+
+        ExportJob job = exportService.start(new MemberSearchCondition(), false);
+        awaitFinished(job);
+
+        assertThat(job.getStatus()).isEqualTo(ExportJob.Status.FAILED);
+        assertThat(job.getError()).isEqualTo("db down");
+        assertThat(filesInDir()).isEmpty();
+    }
+
+    private MemberExportService exportService(MemberRepository repository) {
+        return new MemberExportService(repository, transactionManager, dir.toString(), 1, 1, Duration.ofHours(1));
+    }
+
+    private MemberRepository blockingRepository() {
+        MemberRepository repository = mock(MemberRepository.class);
+        given(repository.streamSearch(any())).willAnswer(invocation -> {
+            release.await();
+            return Stream.empty();
+        });
+        return repository;
+    }
+
+    /**
+     * teamA : member1(10), kim, "jr"(20)
+     * 팀 없음 : line\nbreak(30)
+     */
+    private List<Long> persistMembers() {
+        return transaction.execute(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            Member member1 = new Member("member1", 10, teamA);
+            Member member2 = new Member("kim, \"jr\"", 20, teamA);
+            Member member3 = new Member("line\nbreak", 30);
+            em.persist(member1);
+            em.persist(member2);
+            em.persist(member3);
+            return List.of(teamA.getId(), member1.getId(), member2.getId(), member3.getId());
+        });
+    }
+
+    private String expectedCsv(List<Long> ids) {
+        return "memberId,username,age,teamId,teamName\n" +
+                ids.get(1) + ",member1,10," + ids.get(0) + ",teamA\n" +
+                ids.get(2) + ",\"kim, \"\"jr\"\"\",20," + ids.get(0) + ",teamA\n" +
+                ids.get(3) + ",\"line\nbreak\",30,,\n";
+    }
+
+    private List<Path> filesInDir() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    private void awaitFinished(ExportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (job.getStatus() == ExportJob.Status.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+}
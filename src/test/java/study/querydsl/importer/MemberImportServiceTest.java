@@ -0,0 +1,77 @@
+package study.querydsl.importer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.CommittedDataTestSupport;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * batch마다 별도 트랜잭션으로 커밋하기 때문에 @Transactional 테스트로는 확인할 수 없음
+ * => 끝나면 지움 (CommittedDataTestSupport)
+ */
+@SpringBootTest
+class MemberImportServiceTest extends CommittedDataTestSupport {
+
+    @Autowired
+    MemberImportService importService;
+
+    @Test
+    @DisplayName("CSV import - 없는 팀은 생성, 잘못된 줄은 줄 번호와 함께 건너뜀")
+    public void importCsv() throws Exception {
+
+        String csv = "username,age,teamName\n" +
+                "member1,10,teamA\n" +
+                "\"member,2\",20,teamB\n" +
+                "member3,abc,teamA\n" +
+                "member4,40\n";
+
+        ImportResult result = importService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getTeamsCreated()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting("line").containsExactly(4L);
+
+        List<Member> members = transaction.execute(status -> em.createQuery(
+                        "select m from Member m left join fetch m.team order by m.username", Member.class)
+                .getResultList());
+        assertThat(members)
+                .extracting(Member::getUsername, Member::getAge, m -> m.getTeam() != null ? m.getTeam().getName() : null)
+                .containsExactly(
+                        tuple("member,2", 20, "teamB"),
+                        tuple("member1", 10, "teamA"),
+                        tuple("member4", 40, null));
+        assertThat(members).allSatisfy(m -> assertThat(m.getCreatedDate()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("import한 id와 persist한 id가 겹치지 않음 (같은 sequence)")
+    public void importThenPersist() throws Exception {
+
+        importService.importCsv(new ByteArrayInputStream("member1,10,teamA\n".getBytes(StandardCharsets.UTF_8)));
+
+        Long persistedId = transaction.execute(status -> {
+            Team team = em.createQuery("select t from Team t where t.name = 'teamA'", Team.class).getSingleResult();
+            Member member = new Member("member2", 20, team);
+            em.persist(member);
+            return member.getId();
+        });
+
+        Long count = transaction.execute(status -> em.createQuery(
+                        "select count(m) from Member m where m.id = :id", Long.class)
+                .setParameter("id", persistedId)
+                .getSingleResult());
+        assertThat(count).isEqualTo(1);
+    }
+
+}
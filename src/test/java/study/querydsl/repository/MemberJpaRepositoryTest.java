@@ -14,6 +14,7 @@ import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -91,9 +92,10 @@ class MemberJpaRepositoryTest {
 
         List<MemberTeamDto> result = memberJpaRepository.searchByBuilder(condition);
 
+        // memberE(50)는 ageLoe(40) 밖
         assertThat(result)
                 .extracting("username")
-                .containsExactly("memberD", "memberE");
+                .containsExactly("memberD");
     }
 
     @Test
@@ -131,4 +133,58 @@ class MemberJpaRepositoryTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("조건이 없을 때 최대 개수 제한 조회")
+    public void searchWithLimit() {
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        for (int i = 0; i < 5; i++) {
+            em.persist(new Member("member" + i, 10 + i, teamA));
+        }
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        assertThat(condition.isSelective()).isFalse();
+
+        List<MemberTeamDto> result = memberJpaRepository.search(condition, 3);
+
+        assertThat(result)
+                .extracting("username")
+                .containsExactly("member0", "member1", "member2");
+    }
+
+    @Test
+    @DisplayName("결과가 있을 수 없는 조건이면 조회하지 않고 빈 결과")
+    public void searchUnsatisfiable() {
+
+        em.persist(new Member("member1", 10));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(40);
+        condition.setAgeLoe(30);
+
+        assertThat(memberJpaRepository.search(condition)).isEmpty();
+        assertThat(memberJpaRepository.search(condition, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("대량 저장 (chunk 단위 flush, clear)")
+    public void saveAll() {
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            members.add(new Member("member" + i, i, teamA));
+        }
+
+        memberJpaRepository.saveAll(members);
+
+        assertThat(members).allMatch(member -> member.getId() != null);
+        assertThat(em.contains(members.get(0))).isFalse();
+        assertThat(memberJpaRepository.findAll()).hasSize(120);
+    }
+
+}
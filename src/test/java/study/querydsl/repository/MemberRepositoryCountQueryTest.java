@@ -0,0 +1,176 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.SqlCapturingInspector;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=study.querydsl.support.SqlCapturingInspector")
+@Transactional
+class MemberRepositoryCountQueryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberTestRepository memberTestRepository;
+
+    @BeforeEach
+    public void before() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("memberA", 10, teamA));
+        em.persist(new Member("memberB", 20, teamA));
+        em.persist(new Member("memberC", 30, teamA));
+        em.persist(new Member("memberD", 40, teamB));
+        em.persist(new Member("memberE", 50, teamB));
+
+        em.flush();
+        em.clear();
+
+        SqlCapturingInspector.clear();
+    }
+
+    @Test
+    @DisplayName("teamName 조건이 없으면 count query에 team join이 없음")
+    public void countQueryWithoutTeamJoin() {
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        Page<MemberTeamDto> result = memberRepository.searchPageSimple(condition, PageRequest.of(0, 2));
+
+        assertThat(result.getTotalElements()).isEqualTo(4);
+
+        List<String> countSql = countStatements();
+        assertThat(countSql).hasSize(1);
+        assertThat(countSql.get(0)).doesNotContain("join");
+    }
+
+    @Test
+    @DisplayName("teamName 조건이 있으면 count query에 team join이 있음")
+    public void countQueryWithTeamJoin() {
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        Page<MemberTeamDto> result = memberRepository.searchPageComplex(condition, PageRequest.of(0, 1));
+
+        assertThat(result.getTotalElements()).isEqualTo(2);
+
+        List<String> countSql = countStatements();
+        assertThat(countSql).hasSize(1);
+        assertThat(countSql.get(0)).contains("join");
+    }
+
+    @Test
+    @DisplayName("applyPagination은 content query에서 team join을 뺀 count query를 만듦")
+    public void derivedCountQuery() {
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeLoe(30);
+
+        Page<Member> result = memberTestRepository.applyPagination(condition, PageRequest.of(0, 2));
+
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.getTotalElements()).isEqualTo(3);
+
+        List<String> countSql = countStatements();
+        assertThat(countSql).hasSize(1);
+        assertThat(countSql.get(0)).doesNotContain("join");
+        assertThat(countSql.get(0)).doesNotContain("order by");
+    }
+
+    @Test
+    @DisplayName("결과가 있을 수 없는 조건이면 쿼리를 날리지 않음")
+    public void unsatisfiableCondition() {
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(40);
+        condition.setAgeLoe(20);
+
+        assertThat(memberRepository.search(condition)).isEmpty();
+        assertThat(memberRepository.searchPageSimple(condition, PageRequest.of(0, 2)).getTotalElements()).isEqualTo(0);
+
+        condition = new MemberSearchCondition();
+        condition.setAgeLoe(-1);
+
+        assertThat(memberRepository.searchPageComplex(condition, PageRequest.of(0, 2))).isEmpty();
+        assertThat(SqlCapturingInspector.statements()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("ageGoe == ageLoe면 age = ? 하나로 조회")
+    public void ageEqCondition() {
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(30);
+        condition.setAgeLoe(30);
+
+        List<MemberTeamDto> result = memberRepository.search(condition);
+
+        assertThat(result).extracting("username").containsExactly("memberC");
+        assertThat(SqlCapturingInspector.statements()).hasSize(1);
+        assertThat(SqlCapturingInspector.statements().get(0)).contains("age=?").doesNotContain(">=");
+    }
+
+    @Test
+    @DisplayName("group by 결과 페이징은 count(distinct 그룹 key)로 그룹 개수를 셈 (null 그룹 포함)")
+    public void groupByCount() {
+
+        em.persist(new Member("memberF", 60));
+        em.flush();
+        em.clear();
+        SqlCapturingInspector.clear();
+
+        Page<String> result = memberTestRepository.teamNamePage(PageRequest.of(0, 2));
+
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.getTotalElements()).isEqualTo(3);
+
+        List<String> countSql = countStatements();
+        assertThat(countSql).hasSize(1);
+        assertThat(countSql.get(0)).contains("count(distinct").doesNotContain("group by");
+    }
+
+    @Test
+    @DisplayName("count query를 직접 넘기면 그 query의 fetchCount()")
+    public void explicitCountQuery() {
+
+        Page<String> result = memberTestRepository.teamNamePageWithCountQuery(PageRequest.of(0, 1));
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+    }
+
+    private List<String> countStatements() {
+        return SqlCapturingInspector.statements().stream()
+                .filter(sql -> sql.contains("count("))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -6,15 +6,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.QMember;
 import study.querydsl.entity.Team;
+import study.querydsl.repository.cursor.MemberCursor;
 
 import javax.persistence.EntityManager;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static study.querydsl.entity.QMember.member;
@@ -102,6 +107,181 @@ class MemberRepositoryTest {
         em.persist(memberE);
     }
 
+    @Test
+    @DisplayName("keyset 페이징")
+    public void searchAfter() {
+
+        persistMembers();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        List<MemberTeamDto> first = memberRepository.searchAfter(condition, null, 2);
+        assertThat(first)
+                .extracting("username")
+                .containsExactly("memberA", "memberB");
+
+        List<MemberTeamDto> second = memberRepository.searchAfter(condition, first.get(1).getMemberId(), 2);
+        assertThat(second)
+                .extracting("username")
+                .containsExactly("memberC", "memberD");
+
+        List<MemberTeamDto> last = memberRepository.searchAfter(condition, second.get(1).getMemberId(), 2);
+        assertThat(last)
+                .extracting("username")
+                .containsExactly("memberE");
+    }
+
+    @Test
+    @DisplayName("id 먼저 조회 후 projection 조회하는 페이징")
+    public void searchPageComplexIdsFirst() {
+
+        persistMembers();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        Page<MemberTeamDto> result = memberRepository.searchPageComplex(condition, PageRequest.of(1, 2), PageFetchMode.IDS_FIRST);
+
+        assertThat(result.getTotalElements()).isEqualTo(4);
+        assertThat(result.getContent())
+                .extracting("username")
+                .containsExactly("memberD", "memberE");
+        assertThat(result.getContent())
+                .extracting("teamName")
+                .containsExactly("teamB", "teamB");
+    }
+
+    @Test
+    @DisplayName("SINGLE_QUERY와 IDS_FIRST는 페이지마다 같은 content")
+    public void searchPageComplexFetchModes() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("memberA", 10, teamB));
+        em.persist(new Member("memberB", 20, teamA));
+        em.persist(new Member("memberC", 30, teamB));
+        em.persist(new Member("memberD", 40, teamA));
+        em.persist(new Member("memberE", 50, teamB));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        for (int page = 0; page < 3; page++) {
+            PageRequest pageable = PageRequest.of(page, 2);
+            Page<MemberTeamDto> singleQuery = memberRepository.searchPageComplex(condition, pageable, PageFetchMode.SINGLE_QUERY);
+            Page<MemberTeamDto> idsFirst = memberRepository.searchPageComplex(condition, pageable, PageFetchMode.IDS_FIRST);
+
+            assertThat(singleQuery.getContent())
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(idsFirst.getContent());
+        }
+    }
+
+    @Test
+    @DisplayName("count query 없는 slice")
+    public void searchSlice() {
+
+        persistMembers();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        Slice<MemberTeamDto> first = memberRepository.searchSlice(condition, PageRequest.of(0, 3));
+        assertThat(first.getContent()).hasSize(3);
+        assertThat(first.hasNext()).isTrue();
+
+        Slice<MemberTeamDto> last = memberRepository.searchSlice(condition, PageRequest.of(1, 3));
+        assertThat(last.getContent())
+                .extracting("username")
+                .containsExactly("memberD", "memberE");
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("다중 컬럼 cursor 페이징 (age desc, id asc)")
+    public void searchByCursor() {
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        em.persist(new Member("memberA", 30, teamA));
+        em.persist(new Member("memberB", 20, teamA));
+        em.persist(new Member("memberC", 30, teamA));
+        em.persist(new Member("memberD", 10, teamA));
+        em.persist(new Member("memberE", 20, teamA));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        MemberCursor cursor = MemberCursor.first(Sort.by(Sort.Direction.DESC, "age"), condition);
+
+        Slice<MemberTeamDto> first = memberRepository.searchByCursor(condition, cursor, 3);
+        assertThat(first.getContent())
+                .extracting("username")
+                .containsExactly("memberA", "memberC", "memberB");
+        assertThat(first.hasNext()).isTrue();
+
+        MemberCursor nextCursor = cursor.after(first.getContent().get(2));
+        Slice<MemberTeamDto> second = memberRepository.searchByCursor(condition, nextCursor, 3);
+        assertThat(second.getContent())
+                .extracting("username")
+                .containsExactly("memberE", "memberD");
+        assertThat(second.hasNext()).isFalse();
+
+        MemberCursor previousCursor = nextCursor.before(second.getContent().get(0));
+        Slice<MemberTeamDto> previous = memberRepository.searchByCursor(condition, previousCursor, 3);
+        assertThat(previous.getContent())
+                .extracting("username")
+                .containsExactly("memberA", "memberC", "memberB");
+        assertThat(previous.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("검색 결과 stream 조회")
+    public void streamSearch() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("memberA", 10, teamA));
+        em.persist(new Member("memberB", 20, teamA));
+        em.persist(new Member("memberC", 30, teamB));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        try (Stream<MemberTeamDto> result = memberRepository.streamSearch(condition)) {
+            assertThat(result.map(MemberTeamDto::getUsername).collect(Collectors.toList()))
+                    .containsExactlyInAnyOrder("memberA", "memberB");
+        }
+    }
+
+    @Test
+    @DisplayName("엔티티 stream 조회")
+    public void streamMembers() {
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        em.persist(new Member("memberA", 10, teamA));
+        em.persist(new Member("memberB", 20, teamA));
+        em.persist(new Member("memberC", 30, teamA));
+
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        try (Stream<Member> result = memberRepository.streamMembers(condition)) {
+            assertThat(result.map(Member::getUsername).collect(Collectors.toList()))
+                    .containsExactlyInAnyOrder("memberB", "memberC");
+        }
+    }
+
     @Test
     @DisplayName("querydslPredicateExecutorTest")
     public void querydslPredicateExecutorTest() {
@@ -142,4 +322,28 @@ class MemberRepositoryTest {
         }
     }
 
+    /**
+     * teamA : memberA(10), memberB(20), memberC(30)
+     * teamB : memberD(40), memberE(50)
+     */
+    private void persistMembers() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member memberA = new Member("memberA", 10, teamA);
+        Member memberB = new Member("memberB", 20, teamA);
+        Member memberC = new Member("memberC", 30, teamA);
+        Member memberD = new Member("memberD", 40, teamB);
+        Member memberE = new Member("memberE", 50, teamB);
+
+        em.persist(memberA);
+        em.persist(memberB);
+        em.persist(memberC);
+        em.persist(memberD);
+        em.persist(memberE);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.CommittedDataTestSupport;
+import study.querydsl.support.SqlCapturingInspector;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * dictionary는 쓰기 트랜잭션 안에서는 사용하지 않기 때문에 @Transactional 테스트로는 확인할 수 없음
+ * => 데이터를 커밋하고 끝나면 지움 (CommittedDataTestSupport)
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=study.querydsl.support.SqlCapturingInspector",
+        "member.search.team-dictionary.enabled=true"})
+class MemberSearchTeamDictionaryTest extends CommittedDataTestSupport {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @BeforeEach
+    public void before() {
+        transaction.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            em.persist(new Member("memberA", 10, teamA));
+            em.persist(new Member("memberB", 20, teamA));
+            em.persist(new Member("memberC", 30, teamB));
+        });
+        SqlCapturingInspector.clear();
+    }
+
+    @Test
+    @DisplayName("teamName을 팀 id로 바꿔서 count query에 team join이 없음")
+    public void teamIdInsteadOfJoin() {
+
+        Page<MemberTeamDto> result = memberRepository.searchPageSimple(condition("teamA"), PageRequest.of(0, 1));
+
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).extracting("teamName").containsExactly("teamA");
+
+        List<String> countSql = statements("count(");
+        assertThat(countSql).hasSize(1);
+        assertThat(countSql.get(0)).doesNotContain("join").contains("team_id=?");
+    }
+
+    @Test
+    @DisplayName("없는 팀이면 검색 query를 실행하지 않음")
+    public void unknownTeam() {
+
+        Page<MemberTeamDto> result = memberRepository.searchPageSimple(condition("teamC"), PageRequest.of(0, 10));
+
+        assertThat(result.getTotalElements()).isZero();
+        assertThat(statements("member")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("팀 이름이 바뀌면(entity listener) dictionary를 다시 읽음")
+    public void reloadOnTeamChanged() {
+
+        assertThat(memberRepository.search(condition("teamB"))).extracting("username").containsExactly("memberC");
+
+        transaction.executeWithoutResult(status -> em.createQuery(
+                        "select t from Team t where t.name = 'teamB'", Team.class)
+                .getSingleResult()
+                .setName("teamC"));
+
+        assertThat(memberRepository.search(condition("teamB"))).isEmpty();
+        assertThat(memberRepository.search(condition("teamC"))).extracting("username").containsExactly("memberC");
+    }
+
+    private static MemberSearchCondition condition(String teamName) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName(teamName);
+        return condition;
+    }
+
+    private static List<String> statements(String keyword) {
+        return SqlCapturingInspector.statements().stream()
+                .map(String::toLowerCase)
+                .filter(sql -> sql.contains(keyword))
+                .collect(Collectors.toList());
+    }
+
+}
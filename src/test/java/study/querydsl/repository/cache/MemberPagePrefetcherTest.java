@@ -0,0 +1,112 @@
+package study.querydsl.repository.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.CommittedDataTestSupport;
+import study.querydsl.support.SqlCapturingInspector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 미리 조회는 별도 커넥션(ReadOnlyQueryExecutor)이라 커밋된 데이터만 보임 => @Transactional 테스트로는 확인할 수 없음
+ */
+@SpringBootTest(properties = {
+        "member.search.prefetch.enabled=true",
+        "member.search.prefetch.ttl=1m",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=study.querydsl.support.SqlCapturingInspector"})
+@AutoConfigureMockMvc
+class MemberPagePrefetcherTest extends CommittedDataTestSupport {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MemberPagePrefetcher memberPagePrefetcher;
+
+    @BeforeEach
+    public void before() {
+        memberPagePrefetcher.onMemberChanged(new MemberChangedEvent());
+
+        transaction.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            for (int i = 1; i <= 4; i++) {
+                em.persist(new Member("member" + i, i * 10, teamA));
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("/v2 다음 페이지는 미리 조회해둔 캐시에서 (SQL 없음)")
+    public void nextPageFromCache() throws Exception {
+
+        long hitsBefore = stat("hits");
+        long prefetchedBefore = stat("prefetched");
+
+        mockMvc.perform(get("/v2/members").param("page", "0").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].username", contains("member1", "member2")));
+
+        awaitCached(1);
+        assertThat(stat("prefetched")).isEqualTo(prefetchedBefore + 1);
+
+        SqlCapturingInspector.clear();
+        mockMvc.perform(get("/v2/members").param("page", "1").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].username", contains("member3", "member4")))
+                .andExpect(jsonPath("$.totalElements").value(4));
+
+        assertThat(stat("hits")).isEqualTo(hitsBefore + 1);
+        assertThat(SqlCapturingInspector.statements()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("미리 조회했지만 사용되지 않고 비워진 페이지는 wasted")
+    public void wastedOnInvalidate() throws Exception {
+
+        long prefetchedBefore = stat("prefetched");
+        long wastedBefore = stat("wasted");
+
+        mockMvc.perform(get("/v2/members").param("page", "0").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].username", contains("member1")));
+
+        awaitCached(1);
+        assertThat(stat("prefetched")).isEqualTo(prefetchedBefore + 1);
+
+        transaction.executeWithoutResult(status -> em.createQuery(
+                        "select t from Team t where t.name = 'teamA'", Team.class)
+                .getSingleResult()
+                .setName("teamB"));
+
+        assertThat(stat("size")).isZero();
+        assertThat(stat("wasted")).isEqualTo(wastedBefore + 1);
+    }
+
+    private long stat(String name) {
+        return ((Number) memberPagePrefetcher.stats().get(name)).longValue();
+    }
+
+    /**
+     * 미리 조회는 비동기 => 캐시에 들어갈 때까지 잠깐 기다림
+     */
+    private void awaitCached(long size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stat("size") < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(stat("size")).isEqualTo(size);
+    }
+
+}
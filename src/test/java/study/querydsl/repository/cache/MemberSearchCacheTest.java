@@ -0,0 +1,105 @@
+package study.querydsl.repository.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.TestMemberRepository;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.support.CommittedDataTestSupport;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 캐시는 커밋(또는 롤백) 뒤에 비워지기 때문에 @Transactional 테스트로는 확인할 수 없음
+ * => 데이터를 커밋하고 끝나면 지움 (CommittedDataTestSupport)
+ */
+@SpringBootTest(properties = {"member.search.result-cache.ttl=1m", "member.search.result-cache.max-rows=1"})
+class MemberSearchCacheTest extends CommittedDataTestSupport {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TestMemberRepository testMemberRepository;
+
+    @Autowired
+    MemberSearchCache memberSearchCache;
+
+    @BeforeEach
+    public void before() {
+        transaction.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            em.persist(new Member("member1", 10, teamA));
+            em.persist(new Member("member2", 20, teamA));
+        });
+    }
+
+    @Test
+    @DisplayName("같은 조건은 캐시에서, 반환된 결과를 바꿔도 캐시는 그대로")
+    public void cacheHit() {
+
+        long hitsBefore = memberSearchCache.stats().getHits();
+
+        List<MemberTeamDto> first = memberRepository.search(condition("teamA", 15));
+        first.get(0).setUsername("changed");
+        List<MemberTeamDto> second = memberRepository.search(condition("teamA", 15));
+
+        assertThat(memberSearchCache.stats().getHits()).isEqualTo(hitsBefore + 1);
+        assertThat(second).extracting("username").containsExactly("member2");
+    }
+
+    @Test
+    @DisplayName("bulk update(@InvalidatesMemberCache) 뒤에는 다시 조회")
+    public void invalidateOnBulkUpdate() {
+
+        assertThat(memberRepository.search(condition("teamA", 15))).extracting("age").containsExactly(20);
+
+        transaction.executeWithoutResult(status -> testMemberRepository.bulkAgePlus(0));
+
+        assertThat(memberRepository.search(condition("teamA", 15))).extracting("age").containsExactly(21);
+    }
+
+    @Test
+    @DisplayName("엔티티 변경(entity listener) 뒤에는 다시 조회")
+    public void invalidateOnEntityUpdate() {
+
+        assertThat(memberRepository.search(condition("teamA", 15))).extracting("username").containsExactly("member2");
+
+        transaction.executeWithoutResult(status -> em.createQuery(
+                        "select t from Team t where t.name = 'teamA'", Team.class)
+                .getSingleResult()
+                .setName("teamB"));
+
+        assertThat(memberRepository.search(condition("teamA", 15))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("결과 row 수가 max-rows보다 크면 캐시하지 않음")
+    public void notCachedAboveMaxRows() {
+
+        long hitsBefore = memberSearchCache.stats().getHits();
+
+        assertThat(memberRepository.search(condition("teamA", 0))).hasSize(2);
+        assertThat(memberRepository.search(condition("teamA", 0))).hasSize(2);
+
+        assertThat(memberSearchCache.stats().getHits()).isEqualTo(hitsBefore);
+        assertThat(memberSearchCache.rows()).isLessThanOrEqualTo(1);
+    }
+
+    private static MemberSearchCondition condition(String teamName, int ageGoe) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName(teamName);
+        condition.setAgeGoe(ageGoe);
+        return condition;
+    }
+
+}
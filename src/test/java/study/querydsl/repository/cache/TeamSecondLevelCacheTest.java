@@ -0,0 +1,77 @@
+package study.querydsl.repository.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.CommittedDataTestSupport;
+import study.querydsl.support.SqlCapturingInspector;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 2차 캐시는 커밋된 뒤에 채워지기 때문에 @Transactional 테스트로는 확인할 수 없음
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=study.querydsl.support.SqlCapturingInspector")
+class TeamSecondLevelCacheTest extends CommittedDataTestSupport {
+
+    @Autowired
+    TeamSecondLevelCache teamSecondLevelCache;
+
+    @Test
+    @DisplayName("member.getTeam() 프록시 초기화를 2차 캐시에서")
+    public void teamFromSecondLevelCache() {
+
+        Long memberId = transaction.execute(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            Member member = new Member("member1", 10, teamA);
+            em.persist(member);
+            return member.getId();
+        });
+
+        long hitsBefore = hits(TeamSecondLevelCache.ENTITY_REGION);
+
+        String teamName = transaction.execute(status -> em.find(Member.class, memberId).getTeam().getName());
+
+        assertThat(teamName).isEqualTo("teamA");
+        assertThat(hits(TeamSecondLevelCache.ENTITY_REGION)).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    @DisplayName("team.getMembers()는 컬렉션 query 한번 (member id마다 조회하지 않음)")
+    public void membersInOneQuery() {
+
+        Long teamId = transaction.execute(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            for (int i = 1; i <= 3; i++) {
+                em.persist(new Member("member" + i, i * 10, teamA));
+            }
+            return teamA.getId();
+        });
+
+        for (int i = 0; i < 2; i++) {
+            SqlCapturingInspector.clear();
+
+            int size = transaction.execute(status -> em.find(Team.class, teamId).getMembers().size());
+
+            assertThat(size).isEqualTo(3);
+            assertThat(SqlCapturingInspector.statements())
+                    .filteredOn(sql -> sql.toLowerCase().contains("from member"))
+                    .hasSize(1);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private long hits(String region) {
+        Map<String, Object> regionStats = (Map<String, Object>) teamSecondLevelCache.stats().get(region);
+        return (long) regionStats.get("hits");
+    }
+
+}
@@ -0,0 +1,108 @@
+package study.querydsl.repository.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TtlCacheTest {
+
+    @Test
+    @DisplayName("같은 key는 한번만 조회")
+    public void cacheHit() {
+
+        TtlCache<String, Long> cache = new TtlCache<>(Duration.ofMinutes(1), 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("teamA", () -> (long) loads.incrementAndGet());
+        Long result = cache.get("teamA", () -> (long) loads.incrementAndGet());
+
+        assertThat(result).isEqualTo(1L);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.stats().getHits()).isEqualTo(1);
+        assertThat(cache.stats().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("크기를 넘으면 가장 오래 사용하지 않은 key부터 제거")
+    public void evictEldest() {
+
+        TtlCache<String, Long> cache = new TtlCache<>(Duration.ofMinutes(1), 2);
+
+        cache.get("a", () -> 1L);
+        cache.get("b", () -> 2L);
+        cache.get("a", () -> 1L);
+        cache.get("c", () -> 3L);
+
+        assertThat(cache.contains("a")).isTrue();
+        assertThat(cache.contains("b")).isFalse();
+        assertThat(cache.contains("c")).isTrue();
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("무게 합이 maxWeight를 넘으면 오래된 key부터 제거, maxWeight보다 무거운 값은 캐시하지 않음")
+    public void maxWeight() {
+
+        TtlCache<String, List<Integer>> cache = new TtlCache<>(Duration.ofMinutes(1), 10, 3, List::size);
+
+        cache.get("a", () -> List.of(1, 2));
+        cache.get("b", () -> List.of(3, 4));
+        cache.get("c", () -> List.of(5, 6, 7, 8));
+
+        assertThat(cache.contains("a")).isFalse();
+        assertThat(cache.contains("b")).isTrue();
+        assertThat(cache.contains("c")).isFalse();
+        assertThat(cache.weight()).isEqualTo(2);
+
+        cache.invalidateAll();
+        assertThat(cache.weight()).isZero();
+    }
+
+    @Test
+    @DisplayName("조회 도중에 무효화되면 결과를 캐시하지 않음")
+    public void invalidateWhileLoading() {
+
+        TtlCache<String, Long> cache = new TtlCache<>(Duration.ofMinutes(1), 10);
+
+        cache.get("a", () -> {
+            cache.invalidateAll();
+            return 1L;
+        });
+
+        assertThat(cache.contains("a")).isFalse();
+    }
+
+    @Test
+    @DisplayName("캐시에서 빠진 값은 removalListener로 전달")
+    public void removalListener() {
+
+        List<Long> removed = new ArrayList<>();
+        TtlCache<String, Long> cache = new TtlCache<>(Duration.ofMinutes(1), 1, removed::add);
+
+        cache.load("a", () -> 1L);
+        cache.load("b", () -> 2L);
+        cache.invalidateAll();
+
+        assertThat(removed).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("ttl이 0이면 캐시 사용 안함")
+    public void disabled() {
+
+        TtlCache<String, Long> cache = new TtlCache<>(Duration.ZERO, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", () -> (long) loads.incrementAndGet());
+        cache.get("a", () -> (long) loads.incrementAndGet());
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+}
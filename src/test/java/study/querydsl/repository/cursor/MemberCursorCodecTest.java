@@ -0,0 +1,82 @@
+package study.querydsl.repository.cursor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberCursorCodecTest {
+
+    MemberCursorCodec codec = new MemberCursorCodec(new ObjectMapper(), "test-secret");
+
+    @Test
+    @DisplayName("encode한 토큰을 decode하면 같은 cursor")
+    public void roundTrip() {
+
+        MemberSearchCondition condition = condition("teamA");
+        MemberCursor cursor = MemberCursor.first(Sort.by(Sort.Direction.DESC, "age"), condition)
+                .after(new MemberTeamDto(7L, "member7", 30, 1L, "teamA"));
+
+        MemberCursor decoded = codec.decode(codec.encode(cursor), condition);
+
+        assertThat(decoded.getKeys()).containsExactly(MemberSortKey.AGE, MemberSortKey.ID);
+        assertThat(decoded.getDirections()).containsExactly(Sort.Direction.DESC, Sort.Direction.ASC);
+        assertThat(decoded.getValues()).containsExactly(30, 7L);
+        assertThat(decoded.isBackward()).isFalse();
+    }
+
+    @Test
+    @DisplayName("payload를 바꾸면 서명 불일치")
+    public void tampered() {
+
+        MemberSearchCondition condition = condition("teamA");
+        String token = codec.encode(MemberCursor.first(Sort.unsorted(), condition)
+                .after(new MemberTeamDto(7L, "member7", 30, 1L, "teamA")));
+        String otherToken = codec.encode(MemberCursor.first(Sort.unsorted(), condition)
+                .after(new MemberTeamDto(8L, "member8", 30, 1L, "teamA")));
+
+        String forged = otherToken.substring(0, otherToken.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        assertThatThrownBy(() -> codec.decode(forged, condition))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    @DisplayName("검색 조건이 바뀌면 cursor를 사용할 수 없음")
+    public void conditionChanged() {
+
+        String token = codec.encode(MemberCursor.first(Sort.unsorted(), condition("teamA"))
+                .after(new MemberTeamDto(7L, "member7", 30, 1L, "teamA")));
+
+        assertThatThrownBy(() -> codec.decode(token, condition("teamB")))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    @DisplayName("fingerprint는 정규화한 조건 기준 (빈 문자열 = null), 값 경계가 다르면 다른 조건")
+    public void fingerprint() {
+
+        MemberSearchCondition blank = condition("teamA");
+        blank.setUsername("");
+
+        MemberSearchCondition shifted = condition("A");
+        shifted.setUsername("team");
+        MemberSearchCondition other = condition("mA");
+        other.setUsername("tea");
+
+        assertThat(MemberCursor.fingerprint(blank)).isEqualTo(MemberCursor.fingerprint(condition("teamA")));
+        assertThat(MemberCursor.fingerprint(shifted)).isNotEqualTo(MemberCursor.fingerprint(other));
+    }
+
+    private MemberSearchCondition condition(String teamName) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName(teamName);
+        return condition;
+    }
+
+}
@@ -0,0 +1,80 @@
+package study.querydsl.repository.support;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberJpaRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "member.batch-loader.max-batch-size=2")
+@Transactional
+class MemberBatchLoaderTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberBatchLoader memberBatchLoader;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    List<Long> ids;
+
+    @BeforeEach
+    public void before() {
+        ids = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Member member = new Member("member" + i, i * 10);
+            em.persist(member);
+            ids.add(member.getId());
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("없는 id만 max-batch-size개씩 in 조회, 결과는 ids 순서이고 없는 id는 제외")
+    public void batchMissingIds() {
+
+        List<Long> requested = new ArrayList<>(ids);
+        requested.add(0, -1L);
+        long batchesBefore = stat("batches");
+
+        List<Member> result = memberJpaRepository.findAllById(requested);
+
+        assertThat(result).extracting("username")
+                .containsExactly("member1", "member2", "member3", "member4", "member5");
+        // 6개 id / max-batch-size 2
+        assertThat(stat("batches")).isEqualTo(batchesBefore + 3);
+    }
+
+    @Test
+    @DisplayName("영속성 컨텍스트에 있는 회원은 다시 조회하지 않음")
+    public void alreadyLoaded() {
+
+        Member loaded = em.find(Member.class, ids.get(0));
+        long batchesBefore = stat("batches");
+        long alreadyLoadedBefore = stat("alreadyLoaded");
+
+        List<Member> result = memberJpaRepository.findAllById(ids.subList(0, 2));
+
+        assertThat(result.get(0)).isSameAs(loaded);
+        assertThat(stat("alreadyLoaded")).isEqualTo(alreadyLoadedBefore + 1);
+        assertThat(stat("batches")).isEqualTo(batchesBefore + 1);
+    }
+
+    private long stat(String name) {
+        return (long) memberBatchLoader.stats().get(name);
+    }
+
+}
@@ -0,0 +1,125 @@
+package study.querydsl.repository.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.PageFetchMode;
+import study.querydsl.support.CommittedDataTestSupport;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 비동기 쿼리는 별도 커넥션이라 커밋된 데이터만 보임 => @Transactional 테스트로는 확인할 수 없음
+ */
+@SpringBootTest(properties = "member.search.async.enabled=true")
+class ReadOnlyQueryExecutorTest extends CommittedDataTestSupport {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    ReadOnlyQueryExecutor executor;
+
+    CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    public void shutdown() {
+        release.countDown();
+        if (executor != null) {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("count query를 content query와 동시에 실행 (커밋된 데이터)")
+    public void concurrentCount() {
+
+        transaction.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            for (int i = 1; i <= 5; i++) {
+                em.persist(new Member("member" + i, i * 10, teamA));
+            }
+        });
+
+        Page<MemberTeamDto> result = memberRepository.searchPageComplex(
+                new MemberSearchCondition(), PageRequest.of(0, 2), PageFetchMode.SINGLE_QUERY);
+
+        assertThat(result.getContent()).extracting("username").containsExactly("member1", "member2");
+        assertThat(result.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("스레드와 대기 큐가 가득 차면 받지 않음 => 호출한 쪽에서 동기로 실행")
+    public void rejectWhenFull() {
+
+        executor = new ReadOnlyQueryExecutor(transactionManager, 1, 1, 3000);
+
+        assertThat(executor.submit(this::awaitRelease)).isPresent();
+        assertThat(executor.submit(this::awaitRelease)).isPresent();
+        assertThat(executor.submit(this::awaitRelease)).isEmpty();
+        assertThat(executor.submitIfIdle(this::awaitRelease)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("timeout 안에 끝나지 않으면 취소하고 QueryTimeoutException (다시 실행하지 않음)")
+    public void timeout() {
+
+        executor = new ReadOnlyQueryExecutor(transactionManager, 1, 1, 100);
+
+        Future<Long> future = executor.submit(this::awaitRelease).orElseThrow();
+
+        assertThatThrownBy(() -> executor.join(future))
+                .isInstanceOf(QueryTimeoutException.class);
+        assertThat(future.isCancelled()).isTrue();
+    }
+
+    @Test
+    @DisplayName("비동기 쿼리의 트랜잭션에 timeout => 안에서 만드는 query에 query timeout이 걸림")
+    public void transactionTimeout() {
+
+        executor = new ReadOnlyQueryExecutor(transactionManager, 1, 1, 1500);
+
+        Optional<Future<Integer>> timeToLive = executor.submit(() -> {
+            EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(emf);
+            return holder.hasTimeout() ? holder.getTimeToLiveInSeconds() : -1;
+        });
+
+        int seconds = executor.join(timeToLive.orElseThrow());
+        assertThat(seconds).isBetween(1, 2);
+    }
+
+    private Long awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0L;
+    }
+
+}
@@ -0,0 +1,39 @@
+package study.querydsl.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 데이터를 커밋해야 확인할 수 있는 테스트 (별도 트랜잭션으로 커밋하는 작업, 커밋 뒤에 채워지거나 비워지는 캐시)
+ *   * @Transactional 롤백 대신 transaction으로 데이터를 커밋하고, 테스트가 끝나면 member, team을 지움
+ *   * 그 외 테스트는 기본대로 @Transactional
+ */
+public abstract class CommittedDataTestSupport {
+
+    @Autowired
+    protected EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    protected TransactionTemplate transaction;
+
+    @BeforeEach
+    public void initTransaction() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void deleteCommittedData() {
+        transaction.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+        });
+    }
+
+}
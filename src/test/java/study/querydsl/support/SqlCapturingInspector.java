@@ -0,0 +1,38 @@
+package study.querydsl.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 실제로 DB에 나가는 SQL을 테스트에서 검증하기 위한 StatementInspector
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector 로 등록해서 사용
+ */
+public class SqlCapturingInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final List<String> statements = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (statements) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static List<String> statements() {
+        synchronized (statements) {
+            return new ArrayList<>(statements);
+        }
+    }
+
+    public static void clear() {
+        synchronized (statements) {
+            statements.clear();
+        }
+    }
+
+}